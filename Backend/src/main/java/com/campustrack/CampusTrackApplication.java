@@ -3,10 +3,12 @@ package com.campustrack;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 // Main application class for Campus Track Lost and Found System
 @SpringBootApplication
 @EnableMongoAuditing
+@EnableScheduling
 public class CampusTrackApplication {
     // Entry point for the application
     public static void main(String[] args) {
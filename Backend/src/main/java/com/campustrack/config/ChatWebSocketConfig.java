@@ -0,0 +1,94 @@
+package com.campustrack.config;
+
+import com.campustrack.controller.ChatWebSocketEndpoint;
+import com.campustrack.model.User;
+import com.campustrack.security.JwtUtil;
+import com.campustrack.security.UserPrincipalCache;
+import com.campustrack.service.ChatService;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.ServletContext;
+import jakarta.websocket.DeploymentException;
+import jakarta.websocket.HandshakeResponse;
+import jakarta.websocket.server.HandshakeRequest;
+import jakarta.websocket.server.ServerContainer;
+import jakarta.websocket.server.ServerEndpointConfig;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.ServletContextAware;
+
+import java.util.List;
+
+// Registers the chat WebSocket endpoint with the servlet container's JSR-356 ServerContainer.
+// The handshake is authenticated here from the "token" query parameter, since browsers
+// cannot set headers on WebSocket requests.
+@Configuration
+public class ChatWebSocketConfig implements ServletContextAware, SmartInitializingSingleton {
+    
+    public static final String USER_PROPERTY = "user";
+    
+    @Autowired
+    private JwtUtil jwtUtil;
+    
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+    
+    @Autowired
+    private ChatService chatService;
+    
+    private ServletContext servletContext;
+    
+    @Override
+    public void setServletContext(ServletContext servletContext) {
+        this.servletContext = servletContext;
+    }
+    
+    @Override
+    public void afterSingletonsInstantiated() {
+        ServerContainer container = servletContext != null
+                ? (ServerContainer) servletContext.getAttribute(ServerContainer.class.getName())
+                : null;
+        if (container == null) {
+            System.err.println("No WebSocket container available; chat WebSocket disabled");
+            return;
+        }
+        
+        try {
+            container.addEndpoint(ServerEndpointConfig.Builder
+                    .create(ChatWebSocketEndpoint.class, ChatWebSocketEndpoint.PATH)
+                    .configurator(new HandshakeAuthenticator())
+                    .build());
+        } catch (DeploymentException e) {
+            throw new IllegalStateException("Failed to register chat WebSocket endpoint", e);
+        }
+    }
+    
+    // Same token checks as JwtAuthenticationFilter; admins have no match conversations
+    private User authenticate(String token) {
+        Claims claims = jwtUtil.parseValidClaims(token);
+        if (claims == null || "admin".equals(claims.get("role", String.class))) return null;
+        
+        String userId = claims.get("id", String.class);
+        return userId != null ? userPrincipalCache.get(userId).orElse(null) : null;
+    }
+    
+    private class HandshakeAuthenticator extends ServerEndpointConfig.Configurator {
+        
+        // The config passed here is a per-session copy, so the user is stored for this session only
+        @Override
+        public void modifyHandshake(ServerEndpointConfig config, HandshakeRequest request,
+                                    HandshakeResponse response) {
+            List<String> tokens = request.getParameterMap().get("token");
+            User user = tokens != null && !tokens.isEmpty() ? authenticate(tokens.get(0)) : null;
+            if (user != null) {
+                config.getUserProperties().put(USER_PROPERTY, user);
+            }
+        }
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getEndpointInstance(Class<T> endpointClass) {
+            return (T) new ChatWebSocketEndpoint(chatService);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.campustrack.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+// Shared HTTP client for the Gemini API
+@Configuration
+public class GeminiConfig {
+    
+    @Value("${gemini.http.connect-timeout-ms:3000}")
+    private long connectTimeoutMs;
+    
+    @Value("${gemini.http.read-timeout-ms:20000}")
+    private long readTimeoutMs;
+    
+    // One java.net.http.HttpClient keeps a keep-alive connection pool across calls;
+    // both timeouts bound how long a request thread can wait on the upstream
+    @Bean
+    public HttpClient geminiHttpClient() {
+        return HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+    }
+    
+    @Bean
+    public RestTemplate geminiRestTemplate(HttpClient geminiHttpClient) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(geminiHttpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        return new RestTemplate(requestFactory);
+    }
+}
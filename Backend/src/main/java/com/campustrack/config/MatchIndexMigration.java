@@ -0,0 +1,102 @@
+package com.campustrack.config;
+
+import com.campustrack.model.Match;
+import com.campustrack.model.Message;
+import com.campustrack.model.Notification;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+// Builds the unique (lostItemId, foundItemId) index on matches at startup. Pairs duplicated
+// by the old find-then-save matching would make the build fail, so they are merged first:
+// the copy furthest along the claim/handover flow is kept (the oldest on a tie) and the
+// messages and notifications of the others are moved onto it. A non-unique index of the
+// same name left by an earlier version is replaced.
+@Component
+public class MatchIndexMigration {
+    
+    public static final String INDEX_NAME = "lostItemId_foundItemId";
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @PostConstruct
+    public void migrate() {
+        try {
+            int removed = removeDuplicatePairs();
+            if (removed > 0) {
+                System.out.println("Removed " + removed + " duplicate matches before building the unique index");
+            }
+            ensureUniqueIndex();
+        } catch (Exception e) {
+            // Matching still works without the index, but concurrent upserts may duplicate pairs
+            System.err.println("Failed to build unique index " + INDEX_NAME + " on matches: " + e.getMessage());
+        }
+    }
+    
+    // Number of duplicate matches deleted
+    public int removeDuplicatePairs() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group("lostItemId", "foundItemId").push("id").as("ids").count().as("count"),
+                Aggregation.match(Criteria.where("count").gt(1)))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+        
+        int removed = 0;
+        for (Document group : mongoTemplate.aggregate(aggregation, Match.class, Document.class)) {
+            List<Match> copies = mongoTemplate.find(
+                    Query.query(Criteria.where("_id").in(group.getList("ids", Object.class))), Match.class);
+            if (copies.size() < 2) continue;
+            
+            copies.sort(Comparator.comparingInt(MatchIndexMigration::progress).reversed()
+                    .thenComparing(Match::getCreatedAt, Comparator.nullsLast(Comparator.<Instant>naturalOrder())));
+            String keptId = copies.get(0).getId();
+            List<String> duplicateIds = copies.subList(1, copies.size()).stream().map(Match::getId).toList();
+            
+            mongoTemplate.updateMulti(Query.query(Criteria.where("matchId").in(duplicateIds)),
+                    Update.update("matchId", keptId), Message.class);
+            mongoTemplate.updateMulti(Query.query(Criteria.where("data.matchId").in(duplicateIds)),
+                    Update.update("data.matchId", keptId), Notification.class);
+            removed += (int) mongoTemplate.remove(Query.query(Criteria.where("_id").in(duplicateIds)), Match.class)
+                    .getDeletedCount();
+        }
+        return removed;
+    }
+    
+    private void ensureUniqueIndex() {
+        IndexOperations indexOps = mongoTemplate.indexOps(Match.class);
+        for (IndexInfo info : indexOps.getIndexInfo()) {
+            if (INDEX_NAME.equals(info.getName()) && !info.isUnique()) {
+                indexOps.dropIndex(INDEX_NAME);
+            }
+        }
+        indexOps.ensureIndex(new Index()
+                .on("lostItemId", Sort.Direction.ASC)
+                .on("foundItemId", Sort.Direction.ASC)
+                .unique()
+                .named(INDEX_NAME));
+    }
+    
+    // Handover progress beats a user decision, which beats an untouched match
+    private static int progress(Match match) {
+        String handover = match.getHandoverStatus();
+        if (handover != null && !"pending".equals(handover)) return 2;
+        String status = match.getStatus();
+        if (status != null && !"pending".equals(status) && !"ai_matched".equals(status)) return 1;
+        return 0;
+    }
+}
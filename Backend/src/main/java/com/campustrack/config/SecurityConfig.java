@@ -1,6 +1,7 @@
 package com.campustrack.config;
 
 import com.campustrack.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -27,8 +28,12 @@ public class SecurityConfig {
             .sessionManagement(session -> 
                 session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Async dispatches (SSE streams) continue a request that was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 // Allow public access to auth endpoints and contact page
                 .requestMatchers("/", "/api/auth/**", "/api/contact", "/api/test/**").permitAll()
+                // WebSocket handshakes authenticate the token query parameter themselves
+                .requestMatchers("/ws/**").permitAll()
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -8,28 +8,37 @@ import com.campustrack.model.Notification;
 import com.campustrack.repository.FoundItemRepository;
 import com.campustrack.repository.LostItemRepository;
 import com.campustrack.repository.MatchRepository;
-import com.campustrack.repository.NotificationRepository;
+import com.campustrack.service.AutoMatchService;
+import com.campustrack.service.EmailOutboxService;
+import com.campustrack.service.GeminiClient;
+import com.campustrack.service.GeminiResponseCache;
+import com.campustrack.service.GeminiStreamService;
+import com.campustrack.service.NotificationService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 
 @RestController
 @RequestMapping("/api/ai")
 public class AIController {
 
+    private static final String UNAVAILABLE_MESSAGE =
+            "Sorry, I'm having trouble connecting right now. Please try again later.";
+
     @Autowired
     private FoundItemRepository foundItemRepository;
 
@@ -40,13 +49,29 @@ public class AIController {
     private MatchRepository matchRepository;
 
     @Autowired
-    private NotificationRepository notificationRepository;
+    private NotificationService notificationService;
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private GeminiClient geminiClient;
+
+    @Autowired
+    private GeminiResponseCache geminiResponseCache;
+
+    @Autowired
+    private AutoMatchService autoMatchService;
+
+    @Autowired
+    private GeminiStreamService geminiStreamService;
 
-    @Autowired(required = false)
-    private JavaMailSender mailSender;
+    @Autowired
+    private ObjectMapper objectMapper;
 
-    @Value("${gemini.api.key}")
-    private String geminiApiKey;
+    // Found items sent to Gemini per search after local ranking
+    @Value("${gemini.search.candidates:20}")
+    private int searchCandidates;
 
     // General chat with Gemini
     @PostMapping("/chat")
@@ -55,18 +80,8 @@ public class AIController {
             String userMessage = request.get("message");
             String context = request.get("context");
 
-            String systemPrompt = """
-                You are a helpful AI assistant for Campus Track, a lost and found management system.
-                Help users with:
-                - How to use the website
-                - Reporting lost/found items
-                - Understanding the matching system
-                - Troubleshooting common issues
-                
-                Be concise, friendly, and helpful. Keep responses under 150 words.
-                """;
-
-            String response = callGeminiAPI(systemPrompt + "\n\nUser: " + userMessage);
+            // The chat prompt does not depend on stored items, so it is cached under a fixed version
+            String response = callGeminiAPI(chatPrompt(userMessage), 0L);
 
             return ResponseEntity.ok(Map.of("response", response));
         } catch (Exception e) {
@@ -75,6 +90,13 @@ public class AIController {
         }
     }
 
+    // Streaming chat over Server-Sent Events: "chunk" events carry the reply as Gemini
+    // generates it, then "done"; "error" carries the usual fallback message
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter chatStream(@RequestBody Map<String, String> request, Authentication authentication) {
+        return geminiStreamService.stream(chatPrompt(request.get("message")), 0L, UNAVAILABLE_MESSAGE);
+    }
+
     // Search for matching items based on user description
     @PostMapping("/search-item")
     public ResponseEntity<?> searchItem(@RequestBody Map<String, String> request, Authentication authentication) {
@@ -84,8 +106,15 @@ public class AIController {
             String time = request.get("time");
             String location = request.get("location");
 
-            // Get all found items
-            List<FoundItem> allFoundItems = foundItemRepository.findAll();
+            // Read the version before loading items: a concurrent change bumps it past this cache key
+            long snapshotVersion = geminiResponseCache.foundItemsVersion();
+
+            // Rank found items locally and only show Gemini the best few
+            List<FoundItem> candidates = autoMatchService.rankFoundItemsForSearch(
+                    description, location, parseDate(date), searchCandidates);
+            if (candidates.isEmpty()) {
+                return ResponseEntity.ok(Map.of("matches", List.of()));
+            }
 
             // Use Gemini to find best matches
             String prompt = String.format("""
@@ -101,15 +130,18 @@ public class AIController {
                 Return ONLY the IDs of the top 3 matching items as a comma-separated list (e.g., "id1,id2,id3").
                 If no good matches, return "NONE".
                 Consider description similarity, location proximity, and date closeness.
-                """, description, date, time, location, convertFoundItemsToJSON(allFoundItems));
+                """, description, date, time, location, convertFoundItemsToJSON(candidates));
 
-            String geminiResponse = callGeminiAPI(prompt);
+            String geminiResponse = callGeminiAPI(prompt, snapshotVersion);
             
+            // Ids can only refer to the candidates that were sent, so no further lookups are needed
             List<FoundItem> matches = new ArrayList<>();
             if (!geminiResponse.trim().equals("NONE")) {
-                String[] ids = geminiResponse.trim().split(",");
-                for (String id : ids) {
-                    foundItemRepository.findById(id.trim()).ifPresent(matches::add);
+                Map<String, FoundItem> candidatesById = new HashMap<>();
+                candidates.forEach(item -> candidatesById.put(item.getId(), item));
+                for (String id : geminiResponse.trim().split(",")) {
+                    FoundItem item = candidatesById.remove(id.trim());
+                    if (item != null) matches.add(item);
                     if (matches.size() >= 3) break;
                 }
             }
@@ -177,32 +209,26 @@ public class AIController {
             notifData.put("matchId", match.getId());
             notifData.put("type", "ai_match");
             notification.setData(notifData);
-            notificationRepository.save(notification);
-
-            // Send email to finder
-            if (mailSender != null) {
-                String emailBody = String.format("""
-                    Hi %s,
-                    
-                    Good news! Our AI has found a potential owner for your found item.
-                    
-                    Item: %s
-                    
-                    ⚠️ IMPORTANT: This match was created by AI based on user description.
-                    Please confirm the owner's identity strictly before returning the item.
-                    
-                    Go to your "My Matches" to review and contact the owner.
-                    
-                    Best regards,
-                    Campus Track Team
-                    """, finderItem.getUserName(), finderItem.getItemName());
-
-                SimpleMailMessage message = new SimpleMailMessage();
-                message.setTo(finderItem.getUserEmail());
-                message.setSubject("AI Match Found - Please Verify Before Returning");
-                message.setText(emailBody);
-                mailSender.send(message);
-            }
+            notificationService.send(notification);
+
+            // Queue email to finder
+            String emailBody = String.format("""
+                Hi %s,
+                
+                Good news! Our AI has found a potential owner for your found item.
+                
+                Item: %s
+                
+                ⚠️ IMPORTANT: This match was created by AI based on user description.
+                Please confirm the owner's identity strictly before returning the item.
+                
+                Go to your "My Matches" to review and contact the owner.
+                
+                Best regards,
+                Campus Track Team
+                """, finderItem.getUserName(), finderItem.getItemName());
+            emailOutboxService.enqueue(finderItem.getUserEmail(),
+                    "AI Match Found - Please Verify Before Returning", emailBody);
 
             return ResponseEntity.ok(Map.of(
                     "message", "Match created successfully",
@@ -215,72 +241,75 @@ public class AIController {
         }
     }
 
-    // Call Gemini API
-    private String callGeminiAPI(String prompt) {
-        try {
-            RestTemplate restTemplate = new RestTemplate();
-            String url = "https://generativelanguage.googleapis.com/v1beta/models/gemini-pro:generateContent?key=" + geminiApiKey;
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            Map<String, Object> requestBody = new HashMap<>();
-            List<Map<String, Object>> contents = new ArrayList<>();
-            Map<String, Object> content = new HashMap<>();
-            List<Map<String, String>> parts = new ArrayList<>();
-            Map<String, String> part = new HashMap<>();
-            part.put("text", prompt);
-            parts.add(part);
-            content.put("parts", parts);
-            contents.add(content);
-            requestBody.put("contents", contents);
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-            
-            @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.postForObject(url, entity, Map.class);
-            
-            // Extract text from response
-            if (response != null && response.containsKey("candidates")) {
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> candidates = (List<Map<String, Object>>) response.get("candidates");
-                if (!candidates.isEmpty()) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> firstCandidate = candidates.get(0);
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> contentObj = (Map<String, Object>) firstCandidate.get("content");
-                    @SuppressWarnings("unchecked")
-                    List<Map<String, String>> partsObj = (List<Map<String, String>>) contentObj.get("parts");
-                    if (!partsObj.isEmpty()) {
-                        return partsObj.get(0).get("text");
-                    }
-                }
-            }
+    private String chatPrompt(String userMessage) {
+        String systemPrompt = """
+            You are a helpful AI assistant for Campus Track, a lost and found management system.
+            Help users with:
+            - How to use the website
+            - Reporting lost/found items
+            - Understanding the matching system
+            - Troubleshooting common issues
             
-            return "Sorry, I couldn't process that. Please try again.";
+            Be concise, friendly, and helpful. Keep responses under 150 words.
+            """;
+
+        return systemPrompt + "\n\nUser: " + userMessage;
+    }
+
+    // Hit/miss counters and current size of the Gemini response cache (admin only)
+    @GetMapping("/cache-stats")
+    public ResponseEntity<?> cacheStats(Authentication authentication) {
+        Object principal = authentication.getPrincipal();
+        String role = (principal instanceof User) ? ((User) principal).getRole() : "admin";
+
+        if (!"admin".equals(role)) {
+            return ResponseEntity.status(403)
+                    .body(Map.of("message", "Access denied. Admins only."));
+        }
+
+        return ResponseEntity.ok(geminiResponseCache.stats());
+    }
+
+    // Call Gemini API through the response cache; failures and rejections fall back to a
+    // friendly message and are not cached
+    private String callGeminiAPI(String prompt, long snapshotVersion) {
+        try {
+            String text = geminiResponseCache.get(prompt, snapshotVersion,
+                    () -> geminiClient.generateContent(prompt));
+            return text != null ? text : "Sorry, I couldn't process that. Please try again.";
         } catch (Exception e) {
-            e.printStackTrace();
-            return "Sorry, I'm having trouble connecting right now. Please try again later.";
+            System.err.println("Gemini call failed: " + e.getMessage());
+            return UNAVAILABLE_MESSAGE;
         }
     }
 
-    private String convertFoundItemsToJSON(List<FoundItem> items) {
-        StringBuilder json = new StringBuilder("[");
-        for (int i = 0; i < Math.min(items.size(), 20); i++) {
-            FoundItem item = items.get(i);
-            if (i > 0) json.append(",");
-            json.append(String.format("""
-                {"id":"%s","name":"%s","description":"%s","location":"%s","date":"%s","category":"%s"}
-                """, 
-                item.getId(),
-                item.getItemName(),
-                item.getItemDescription(),
-                item.getPlaceFound(),
-                item.getDateFound(),
-                item.getCategory()
-            ));
+    // Null for a missing or malformed date so ranking simply skips the date boost
+    private LocalDate parseDate(String date) {
+        if (date == null || date.isBlank()) return null;
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // Candidates as a JSON array, written field by field so item text is escaped properly
+    private String convertFoundItemsToJSON(List<FoundItem> items) throws IOException {
+        StringWriter json = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(json)) {
+            generator.writeStartArray();
+            for (FoundItem item : items) {
+                generator.writeStartObject();
+                generator.writeStringField("id", item.getId());
+                generator.writeStringField("name", item.getItemName());
+                generator.writeStringField("description", item.getItemDescription());
+                generator.writeStringField("location", item.getPlaceFound());
+                generator.writeStringField("date", item.getDateFound() != null ? item.getDateFound().toString() : null);
+                generator.writeStringField("category", item.getCategory());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
         }
-        json.append("]");
         return json.toString();
     }
 }
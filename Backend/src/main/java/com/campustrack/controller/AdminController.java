@@ -1,16 +1,25 @@
 package com.campustrack.controller;
 
+import com.campustrack.dto.CursorPage;
+import com.campustrack.dto.UserWithItems;
+import com.campustrack.model.FoundItem;
+import com.campustrack.model.LostItem;
 import com.campustrack.model.User;
-import com.campustrack.repository.UserRepository;
-import com.campustrack.repository.LostItemRepository;
 import com.campustrack.repository.FoundItemRepository;
+import com.campustrack.repository.LostItemRepository;
+import com.campustrack.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -27,26 +36,83 @@ public class AdminController {
     @Autowired
     private FoundItemRepository foundItemRepository;
     
-    // Get complete list of students with their reported items
-    // Get complete list of students with their reported items
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    // Dashboard totals and per-day counts for the last `days` days (today included). Totals come
+    // from collection metadata and only items inside the window are read, so the cost does not
+    // grow with the collections.
+    @GetMapping("/item-stats")
+    public ResponseEntity<?> getItemStats(@RequestParam(value = "days", defaultValue = "7") int days,
+                                          Authentication authentication) {
+        try {
+            if (!isAdmin(authentication)) {
+                return ResponseEntity.status(403)
+                        .body(Map.of("message", "Access denied. Admins only."));
+            }
+            
+            int window = Math.max(1, Math.min(days, 31));
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate today = LocalDate.now(zone);
+            LocalDate since = today.minusDays(window - 1);
+            Instant reportedSince = since.atStartOfDay(zone).toInstant();
+            
+            Map<LocalDate, Map<String, Object>> byDay = new LinkedHashMap<>();
+            for (LocalDate day = since; !day.isAfter(today); day = day.plusDays(1)) {
+                Map<String, Object> counts = new HashMap<>();
+                counts.put("date", day.toString());
+                counts.put("lost", 0L);
+                counts.put("found", 0L);
+                counts.put("returned", 0L);
+                counts.put("unclaimed", 0L);
+                byDay.put(day, counts);
+            }
+            
+            for (LostItem item : lostItemRepository.findChartItemsSince(since, reportedSince)) {
+                Map<String, Object> counts = byDay.get(chartDay(item.getDateLost(), item.getCreatedAt(), zone));
+                if (counts == null) continue;
+                increment(counts, "lost");
+                if ("claimed".equals(item.getStatus()) || "returned".equals(item.getStatus())) {
+                    increment(counts, "returned");
+                } else if ("unclaimed".equals(item.getStatus())) {
+                    increment(counts, "unclaimed");
+                }
+            }
+            for (FoundItem item : foundItemRepository.findChartItemsSince(since, reportedSince)) {
+                Map<String, Object> counts = byDay.get(chartDay(item.getDateFound(), item.getCreatedAt(), zone));
+                if (counts != null) increment(counts, "found");
+            }
+            
+            Map<String, Object> body = new HashMap<>();
+            body.put("totalLost", mongoTemplate.estimatedCount(LostItem.class));
+            body.put("totalFound", mongoTemplate.estimatedCount(FoundItem.class));
+            body.put("days", new ArrayList<>(byDay.values()));
+            return ResponseEntity.ok(body);
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                    .body(Map.of("message", "Failed to fetch item stats", "error", e.getMessage()));
+        }
+    }
+    
+    // Get one page of students with their reported items, newest first. A single aggregation
+    // ($match role, $lookup lostitems/founditems); nextCursor fetches the following page and
+    // userId narrows the result to one student.
     @GetMapping("/students-details")
-    public ResponseEntity<?> getAllStudentsWithItems(Authentication authentication) {
+    public ResponseEntity<?> getAllStudentsWithItems(@RequestParam(value = "cursor", required = false) String cursor,
+                                                     @RequestParam(value = "limit", defaultValue = "50") int limit,
+                                                     @RequestParam(value = "userId", required = false) String userId,
+                                                     Authentication authentication) {
         try {
             // Check if user is admin before allowing access
-            Object principal = authentication.getPrincipal();
-            String role = (principal instanceof User) ? ((User) principal).getRole() : "admin";
-            
-            if (!"admin".equals(role)) {
+            if (!isAdmin(authentication)) {
                 return ResponseEntity.status(403)
                         .body(Map.of("message", "Access denied. Admins only."));
             }
             
-            List<User> students = userRepository.findAll().stream()
-                    .filter(u -> "student".equals(u.getRole()))
-                    .toList();
+            CursorPage<UserWithItems> page = userRepository.findWithItems("student", userId, cursor, limit);
             
             List<Map<String, Object>> result = new ArrayList<>();
-            for (User student : students) {
+            for (UserWithItems student : page.getItems()) {
                 Map<String, Object> studentData = new HashMap<>();
                 studentData.put("id", student.getId());
                 studentData.put("role", student.getRole());
@@ -59,17 +125,17 @@ public class AdminController {
                 studentData.put("department", student.getDepartment());
                 studentData.put("createdAt", student.getCreatedAt());
                 studentData.put("updatedAt", student.getUpdatedAt());
-                
-                var lostItems = lostItemRepository.findByUserEmailOrderByCreatedAtDesc(student.getEmail());
-                var foundItems = foundItemRepository.findByUserEmailOrderByCreatedAtDesc(student.getEmail());
-                
-                studentData.put("lostItems", lostItems);
-                studentData.put("foundItems", foundItems);
-                
+                studentData.put("lostItems", student.getLostItems());
+                studentData.put("foundItems", student.getFoundItems());
                 result.add(studentData);
             }
             
-            return ResponseEntity.ok(Map.of("students", result));
+            Map<String, Object> body = new HashMap<>();
+            body.put("students", result);
+            body.put("nextCursor", page.getNextCursor());
+            return ResponseEntity.ok(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500)
                     .body(Map.of("message", "Failed to fetch students and their items", 
@@ -77,23 +143,22 @@ public class AdminController {
         }
     }
     
+    // Get one page of staff with their reported items; same paging and filter as students-details
     @GetMapping("/staff-details")
-    public ResponseEntity<?> getAllStaffWithItems(Authentication authentication) {
+    public ResponseEntity<?> getAllStaffWithItems(@RequestParam(value = "cursor", required = false) String cursor,
+                                                  @RequestParam(value = "limit", defaultValue = "50") int limit,
+                                                  @RequestParam(value = "userId", required = false) String userId,
+                                                  Authentication authentication) {
         try {
-            Object principal = authentication.getPrincipal();
-            String role = (principal instanceof User) ? ((User) principal).getRole() : "admin";
-            
-            if (!"admin".equals(role)) {
+            if (!isAdmin(authentication)) {
                 return ResponseEntity.status(403)
                         .body(Map.of("message", "Access denied. Admins only."));
             }
             
-            List<User> staff = userRepository.findAll().stream()
-                    .filter(u -> "staff".equals(u.getRole()))
-                    .toList();
+            CursorPage<UserWithItems> page = userRepository.findWithItems("staff", userId, cursor, limit);
             
             List<Map<String, Object>> result = new ArrayList<>();
-            for (User member : staff) {
+            for (UserWithItems member : page.getItems()) {
                 Map<String, Object> staffData = new HashMap<>();
                 staffData.put("id", member.getId());
                 staffData.put("role", member.getRole());
@@ -104,21 +169,38 @@ public class AdminController {
                 staffData.put("department", member.getDepartment());
                 staffData.put("createdAt", member.getCreatedAt());
                 staffData.put("updatedAt", member.getUpdatedAt());
-                
-                var lostItems = lostItemRepository.findByUserEmailOrderByCreatedAtDesc(member.getEmail());
-                var foundItems = foundItemRepository.findByUserEmailOrderByCreatedAtDesc(member.getEmail());
-                
-                staffData.put("lostItems", lostItems);
-                staffData.put("foundItems", foundItems);
-                
+                staffData.put("lostItems", member.getLostItems());
+                staffData.put("foundItems", member.getFoundItems());
                 result.add(staffData);
             }
             
-            return ResponseEntity.ok(Map.of("staff", result));
+            Map<String, Object> body = new HashMap<>();
+            body.put("staff", result);
+            body.put("nextCursor", page.getNextCursor());
+            return ResponseEntity.ok(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500)
                     .body(Map.of("message", "Failed to fetch staff and their items", 
                                 "error", e.getMessage()));
         }
     }
+    
+    // Items without a date count on the day they were reported
+    private LocalDate chartDay(LocalDate date, Instant createdAt, ZoneId zone) {
+        if (date != null) return date;
+        return createdAt != null ? createdAt.atZone(zone).toLocalDate() : null;
+    }
+    
+    private void increment(Map<String, Object> counts, String key) {
+        counts.put(key, (Long) counts.get(key) + 1);
+    }
+    
+    // The admin principal is a plain string; users carry their role
+    private boolean isAdmin(Authentication authentication) {
+        Object principal = authentication.getPrincipal();
+        String role = (principal instanceof User) ? ((User) principal).getRole() : "admin";
+        return "admin".equals(role);
+    }
 }
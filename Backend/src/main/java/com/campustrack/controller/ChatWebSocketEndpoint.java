@@ -0,0 +1,59 @@
+package com.campustrack.controller;
+
+import com.campustrack.config.ChatWebSocketConfig;
+import com.campustrack.model.User;
+import com.campustrack.service.ChatService;
+import jakarta.websocket.*;
+
+import java.io.IOException;
+
+// WebSocket transport for match conversations: /ws/chat/{matchId}?token=<jwt>.
+// Clients send {"message": "..."}; every participant connected to the match receives each
+// new message as the same JSON the REST messages API returns. A frame refused because the
+// server is backed up is answered with {"error": ..., "rejectedMessage": ...} to the sender only.
+public class ChatWebSocketEndpoint extends Endpoint {
+    
+    public static final String PATH = "/ws/chat/{matchId}";
+    private static final int MAX_FRAME_CHARS = 8192;
+    
+    private final ChatService chatService;
+    
+    public ChatWebSocketEndpoint(ChatService chatService) {
+        this.chatService = chatService;
+    }
+    
+    // Resolve the participants once for the whole session, or refuse the connection
+    @Override
+    public void onOpen(Session session, EndpointConfig config) {
+        User user = (User) session.getUserProperties().get(ChatWebSocketConfig.USER_PROPERTY);
+        String matchId = session.getPathParameters().get("matchId");
+        
+        ChatService.Participants participants = user != null ? chatService.join(matchId, user, session) : null;
+        if (participants == null) {
+            close(session, new CloseReason(CloseReason.CloseCodes.VIOLATED_POLICY, "Not a participant of this match"));
+            return;
+        }
+        
+        session.setMaxTextMessageBufferSize(MAX_FRAME_CHARS);
+        session.addMessageHandler(String.class,
+                (MessageHandler.Whole<String>) payload -> chatService.receive(participants, session, payload));
+    }
+    
+    @Override
+    public void onClose(Session session, CloseReason closeReason) {
+        chatService.leave(session.getPathParameters().get("matchId"), session);
+    }
+    
+    @Override
+    public void onError(Session session, Throwable error) {
+        chatService.leave(session.getPathParameters().get("matchId"), session);
+    }
+    
+    private void close(Session session, CloseReason reason) {
+        try {
+            session.close(reason);
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+}
@@ -4,12 +4,15 @@ import com.campustrack.model.LostItem;
 import com.campustrack.model.FoundItem;
 import com.campustrack.repository.LostItemRepository;
 import com.campustrack.repository.FoundItemRepository;
+import com.campustrack.service.ItemFingerprint;
+import com.campustrack.service.ItemTokenIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 // AI-powered matching algorithm using text similarity
 @RestController
@@ -22,9 +25,28 @@ public class ClipController {
     @Autowired
     private FoundItemRepository foundItemRepository;
     
-    // Core matching algorithm - compares descriptions and finds similarities
+    @Autowired
+    private ItemTokenIndex itemTokenIndex;
+    
+    private static final double NAME_SIM_THRESHOLD = 0.5;
+    private static final double TEXT_SIM_THRESHOLD = 0.4;
+    private static final double BOOST_FACTOR = 0.1;
+    private static final double NAME_WEIGHT = 0.6;
+    private static final double TEXT_WEIGHT = 0.4;
+    private static final int HIGH_CONF_THRESHOLD = 70;
+    private static final int MAX_LIMIT = 5000;
+    
+    // Higher score first; ties keep the order of a sequential lost x found scan
+    private static final Comparator<ScoredPair> RANKING = Comparator
+            .comparingInt(ScoredPair::finalScore).reversed()
+            .thenComparingInt(ScoredPair::lostIndex)
+            .thenComparingInt(ScoredPair::foundIndex);
+    
+    // Core matching algorithm - compares descriptions and finds similarities.
+    // Lost items are split across the common ForkJoinPool; each worker keeps only its best
+    // `limit` pairs and the per-worker heaps are merged, so memory is bounded by the limit.
     @PostMapping("/match")
-    public ResponseEntity<?> matchWithCLIP() {
+    public ResponseEntity<?> matchWithCLIP(@RequestParam(value = "limit", defaultValue = "500") int limit) {
         try {
             List<LostItem> lostItems = lostItemRepository.findAll();
             List<FoundItem> foundItems = foundItemRepository.findAll();
@@ -33,61 +55,32 @@ public class ClipController {
                 return ResponseEntity.ok(Map.of("message", "No items to match", "matches", List.of()));
             }
             
-            List<Map<String, Object>> results = new ArrayList<>();
-            
-            double NAME_SIM_THRESHOLD = 0.5;
-            double TEXT_SIM_THRESHOLD = 0.4;
-            double BOOST_FACTOR = 0.1;
-            double NAME_WEIGHT = 0.6;
-            double TEXT_WEIGHT = 0.4;
-            int HIGH_CONF_THRESHOLD = 70;
+            int maxResults = Math.max(1, Math.min(limit, MAX_LIMIT));
             
-            for (LostItem lost : lostItems) {
-                String lostName = lost.getItemName() != null ? lost.getItemName().toLowerCase() : "";
-                String lostText = buildTextDescription(lost).toLowerCase();
-                List<String> boostWords = extractWords(lost.getIdentificationMark());
-                
-                for (FoundItem found : foundItems) {
-                    String foundName = found.getItemName() != null ? found.getItemName().toLowerCase() : "";
-                    String foundText = (found.getItemDescription() != null ? found.getItemDescription() : "").toLowerCase();
-                    
-                    double nameScore = calculateSimilarity(lostName, foundName);
-                    if (nameScore < NAME_SIM_THRESHOLD) continue;
-                    
-                    double textScore = calculateSimilarity(lostText, foundText);
-                    
-                    // Boost score for matching identification marks
-                    List<String> matches = boostWords.stream()
-                            .filter(foundText::contains)
-                            .collect(Collectors.toList());
-                    
-                    if (!matches.isEmpty()) {
-                        textScore += BOOST_FACTOR * matches.size();
-                        textScore = Math.min(textScore, 1.0);
-                    }
-                    
-                    double finalScore = nameScore * NAME_WEIGHT + textScore * TEXT_WEIGHT;
-                    
-                    int nameScorePercent = (int) Math.round(nameScore * 100);
-                    int textScorePercent = (int) Math.round(textScore * 100);
-                    int finalScorePercent = (int) Math.round(finalScore * 100);
-                    
-                    if (finalScorePercent > TEXT_SIM_THRESHOLD * 100) {
-                        Map<String, Object> match = new HashMap<>();
-                        match.put("lostItem", lost);
-                        match.put("foundItem", found);
-                        match.put("finalScore", finalScorePercent);
-                        match.put("nameScore", nameScorePercent);
-                        match.put("textScore", textScorePercent);
-                        match.put("boostWordsMatched", matches);
-                        match.put("highConfidence", finalScorePercent >= HIGH_CONF_THRESHOLD);
-                        results.add(match);
-                    }
-                }
+            // Position of each found item, so LSH candidates are scored in collection order
+            Map<String, Integer> foundPositions = new HashMap<>();
+            for (int i = 0; i < foundItems.size(); i++) {
+                foundPositions.put(foundItems.get(i).getId(), i);
             }
             
-            results.sort((a, b) -> 
-                Integer.compare((Integer) b.get("finalScore"), (Integer) a.get("finalScore")));
+            TopK best = IntStream.range(0, lostItems.size())
+                    .parallel()
+                    .collect(() -> new TopK(maxResults),
+                            (heap, lostIndex) -> scoreLostItem(lostIndex, lostItems, foundItems, foundPositions, heap),
+                            TopK::merge);
+            
+            List<Map<String, Object>> results = new ArrayList<>();
+            for (ScoredPair pair : best.sorted()) {
+                Map<String, Object> match = new HashMap<>();
+                match.put("lostItem", lostItems.get(pair.lostIndex()));
+                match.put("foundItem", foundItems.get(pair.foundIndex()));
+                match.put("finalScore", pair.finalScore());
+                match.put("nameScore", pair.nameScore());
+                match.put("textScore", pair.textScore());
+                match.put("boostWordsMatched", pair.boostWordsMatched());
+                match.put("highConfidence", pair.finalScore() >= HIGH_CONF_THRESHOLD);
+                results.add(match);
+            }
             
             return ResponseEntity.ok(Map.of("message", "Matching complete", "matches", results));
         } catch (Exception e) {
@@ -96,6 +89,61 @@ public class ClipController {
         }
     }
     
+    // Score one lost item against its candidates and offer every passing pair to the worker's heap
+    private void scoreLostItem(int lostIndex, List<LostItem> lostItems, List<FoundItem> foundItems,
+                               Map<String, Integer> foundPositions, TopK heap) {
+        LostItem lost = lostItems.get(lostIndex);
+        ItemFingerprint lostPrint = itemTokenIndex.fingerprint(lost);
+        String lostText = buildTextDescription(lost).toLowerCase();
+        List<String> boostWords = extractWords(lost.getIdentificationMark());
+        
+        for (int foundIndex : findNameCandidates(lost, foundItems, foundPositions)) {
+            FoundItem found = foundItems.get(foundIndex);
+            double nameScore = ItemFingerprint.jaccard(
+                    lostPrint.getNameTokens(), itemTokenIndex.fingerprint(found).getNameTokens());
+            if (nameScore < NAME_SIM_THRESHOLD) continue;
+            
+            String foundText = (found.getItemDescription() != null ? found.getItemDescription() : "").toLowerCase();
+            double textScore = calculateSimilarity(lostText, foundText);
+            
+            // Boost score for matching identification marks
+            List<String> matches = boostWords.stream()
+                    .filter(foundText::contains)
+                    .collect(Collectors.toList());
+            
+            if (!matches.isEmpty()) {
+                textScore += BOOST_FACTOR * matches.size();
+                textScore = Math.min(textScore, 1.0);
+            }
+            
+            double finalScore = nameScore * NAME_WEIGHT + textScore * TEXT_WEIGHT;
+            
+            int nameScorePercent = (int) Math.round(nameScore * 100);
+            int textScorePercent = (int) Math.round(textScore * 100);
+            int finalScorePercent = (int) Math.round(finalScore * 100);
+            
+            if (finalScorePercent > TEXT_SIM_THRESHOLD * 100) {
+                heap.offer(new ScoredPair(lostIndex, foundIndex, finalScorePercent,
+                        nameScorePercent, textScorePercent, matches));
+            }
+        }
+    }
+    
+    // Positions of found items sharing an LSH name bucket with the lost item;
+    // only these can pass the name threshold
+    private int[] findNameCandidates(LostItem lost, List<FoundItem> foundItems,
+                                     Map<String, Integer> foundPositions) {
+        if (!itemTokenIndex.isReady()) {
+            return IntStream.range(0, foundItems.size()).toArray();
+        }
+        return itemTokenIndex.findFoundNameCandidates(lost).stream()
+                .map(foundPositions::get)
+                .filter(Objects::nonNull)
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .toArray();
+    }
+    
     private String buildTextDescription(LostItem lost) {
         StringBuilder sb = new StringBuilder();
         if (lost.getItemDescription() != null) sb.append(lost.getItemDescription()).append(" ");
@@ -130,4 +178,37 @@ public class ClipController {
         
         return (double) intersection.size() / union.size();
     }
+    
+    private record ScoredPair(int lostIndex, int foundIndex, int finalScore,
+                              int nameScore, int textScore, List<String> boostWordsMatched) {
+    }
+    
+    // Bounded min-heap holding the best pairs seen by one worker
+    private static class TopK {
+        private final int capacity;
+        private final PriorityQueue<ScoredPair> heap = new PriorityQueue<>(RANKING.reversed());
+        
+        TopK(int capacity) {
+            this.capacity = capacity;
+        }
+        
+        void offer(ScoredPair pair) {
+            if (heap.size() < capacity) {
+                heap.add(pair);
+            } else if (RANKING.compare(pair, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(pair);
+            }
+        }
+        
+        void merge(TopK other) {
+            other.heap.forEach(this::offer);
+        }
+        
+        List<ScoredPair> sorted() {
+            List<ScoredPair> pairs = new ArrayList<>(heap);
+            pairs.sort(RANKING);
+            return pairs;
+        }
+    }
 }
@@ -1,16 +1,17 @@
 package com.campustrack.controller;
 
 import com.campustrack.dto.ContactRequest;
+import com.campustrack.dto.CursorPage;
 import com.campustrack.model.Contact;
 import com.campustrack.repository.ContactRepository;
+import com.campustrack.repository.KeysetPager;
+import com.campustrack.service.EmailOutboxService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.time.ZoneId;
 import java.util.Map;
 
 @RestController
@@ -20,8 +21,11 @@ public class ContactController {
     @Autowired
     private ContactRepository contactRepository;
     
-    @Autowired(required = false)
-    private JavaMailSender mailSender;
+    @Autowired
+    private KeysetPager keysetPager;
+    
+    @Autowired
+    private EmailOutboxService emailOutboxService;
     
     @Value("${spring.mail.username}")
     private String emailUsername;
@@ -37,14 +41,10 @@ public class ContactController {
                         .body(Map.of("message", "All fields are required"));
             }
             
-            // Send email to support team
-            if (mailSender != null) {
-                SimpleMailMessage message = new SimpleMailMessage();
-                message.setFrom(emailUsername);
-                message.setTo(emailUsername); // Send to your support email
-                message.setReplyTo(request.getEmail()); // User can reply directly to sender
-                message.setSubject("New Contact Form Submission - Campus Track");
-                message.setText(String.format("""
+            // Queue email to support team; the user can be replied to directly
+            emailOutboxService.enqueue(emailUsername, emailUsername, request.getEmail(),
+                "New Contact Form Submission - Campus Track",
+                String.format("""
                     Message:
                     %s
                     
@@ -59,10 +59,8 @@ public class ContactController {
                     request.getName(),
                     request.getEmail(),
                     request.getPhone()
-                ));
-                
-                mailSender.send(message);
-            }
+                ),
+                false);
             
             // Optional: Still save to database as backup/history
             Contact contact = new Contact();
@@ -79,12 +77,20 @@ public class ContactController {
         }
     }
     
-    // Get all contact messages (for admin)
+    // Get one page of contact messages, newest first (for admin); next cursor in X-Next-Cursor
     @GetMapping
-    public ResponseEntity<?> getAllContacts() {
+    public ResponseEntity<?> getAllContacts(@RequestParam(value = "cursor", required = false) String cursor,
+                                            @RequestParam(value = "limit", defaultValue = "50") int limit) {
         try {
-            List<Contact> contacts = contactRepository.findAllByOrderByCreatedAtDesc();
-            return ResponseEntity.ok(contacts);
+            CursorPage<Contact> page = keysetPager.page(null, Contact.class, cursor, limit, false,
+                    contact -> contact.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant(), Contact::getId);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(KeysetPager.NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500)
                     .body(Map.of("message", "Failed to fetch contacts", "error", e.getMessage()));
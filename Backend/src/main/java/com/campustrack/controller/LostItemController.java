@@ -10,6 +10,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.HashMap;
 import java.util.Map;
 
 // Controller for managing lost item reports with image uploads
@@ -59,11 +60,18 @@ public class LostItemController {
         }
     }
     
+    // One page of items, newest first; pass nextCursor back as cursor for the next page
     @GetMapping
-    public ResponseEntity<?> getLostItems() {
+    public ResponseEntity<?> getLostItems(@RequestParam(value = "cursor", required = false) String cursor,
+                                          @RequestParam(value = "limit", defaultValue = "50") int limit) {
         try {
-            var items = lostItemService.getLostItems();
-            return ResponseEntity.ok(Map.of("items", items));
+            var page = lostItemService.getLostItems(cursor, limit);
+            Map<String, Object> body = new HashMap<>();
+            body.put("items", page.getItems());
+            body.put("nextCursor", page.getNextCursor());
+            return ResponseEntity.ok(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Failed to fetch lost items", "error", e.getMessage()));
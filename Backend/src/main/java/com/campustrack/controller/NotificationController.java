@@ -1,17 +1,22 @@
 package com.campustrack.controller;
 
+import com.campustrack.dto.CursorPage;
 import com.campustrack.model.Notification;
 import com.campustrack.model.User;
+import com.campustrack.repository.KeysetPager;
 import com.campustrack.repository.NotificationRepository;
+import com.campustrack.service.EmailOutboxService;
+import com.campustrack.service.NotificationService;
+import com.campustrack.service.UnreadCounterService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import jakarta.mail.internet.MimeMessage;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -24,25 +29,61 @@ public class NotificationController {
     private NotificationRepository notificationRepository;
     
     @Autowired
-    private JavaMailSender mailSender;
+    private KeysetPager keysetPager;
+    
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+    
+    @Autowired
+    private NotificationService notificationService;
+    
+    @Autowired
+    private UnreadCounterService unreadCounterService;
     
     @Value("${spring.mail.username}")
     private String emailUser;
     
-    // Get all notifications for current user
+    // Get one page of notifications for current user, newest first.
+    // The body stays a plain array; the cursor for the next page is in the X-Next-Cursor header.
     @GetMapping("/notifications")
-    public ResponseEntity<?> getNotifications(Authentication authentication) {
+    public ResponseEntity<?> getNotifications(@RequestParam(value = "cursor", required = false) String cursor,
+                                              @RequestParam(value = "limit", defaultValue = "50") int limit,
+                                              Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
-            List<Notification> notifications = notificationRepository
-                    .findByUserEmailOrderByCreatedAtDesc(user.getEmail());
-            return ResponseEntity.ok(notifications);
+            CursorPage<Notification> page = keysetPager.page(Criteria.where("userEmail").is(user.getEmail()),
+                    Notification.class, cursor, limit, false, Notification::getCreatedAt, Notification::getId);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(KeysetPager.NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500)
                     .body(Map.of("message", "Failed to fetch notifications", "error", e.getMessage()));
         }
     }
     
+    // Push channel: a "notification" event for each notification created for the current user
+    // (or "admin"), as it is created. EventSource clients pass the JWT as ?token=.
+    @GetMapping(value = "/notifications/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(Authentication authentication) {
+        return notificationService.subscribe(recipientOf(authentication));
+    }
+    
+    // Unread notification and message counts for the badge, read from the user's counter document
+    @GetMapping("/notifications/unread-counts")
+    public ResponseEntity<?> getUnreadCounts(Authentication authentication) {
+        try {
+            return ResponseEntity.ok(unreadCounterService.counts(recipientOf(authentication)));
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                    .body(Map.of("message", "Failed to fetch unread counts", "error", e.getMessage()));
+        }
+    }
+    
     // Mark single notification as read
     @PutMapping("/notifications/{id}/read")
     public ResponseEntity<?> markAsRead(@PathVariable String id,
@@ -64,8 +105,9 @@ public class NotificationController {
                         .body(Map.of("message", "Unauthorized"));
             }
             
-            notification.setIsRead(true);
-            notificationRepository.save(notification);
+            if (notificationRepository.markRead(id)) {
+                unreadCounterService.notificationsRead(user.getEmail(), 1);
+            }
             
             return ResponseEntity.ok(Map.of("message", "Notification marked as read"));
         } catch (Exception e) {
@@ -74,20 +116,13 @@ public class NotificationController {
         }
     }
     
-    // Mark all notifications as read
+    // Mark all notifications as read (one updateMany)
     @PutMapping("/notifications/read-all")
     public ResponseEntity<?> markAllAsRead(Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
-            List<Notification> notifications = notificationRepository
-                    .findByUserEmailOrderByCreatedAtDesc(user.getEmail());
-            
-            for (Notification notification : notifications) {
-                if (!notification.getIsRead()) {
-                    notification.setIsRead(true);
-                    notificationRepository.save(notification);
-                }
-            }
+            long marked = notificationRepository.markAllRead(user.getEmail());
+            unreadCounterService.notificationsRead(user.getEmail(), marked);
             
             return ResponseEntity.ok(Map.of("message", "All notifications marked as read"));
         } catch (Exception e) {
@@ -120,13 +155,6 @@ public class NotificationController {
             @SuppressWarnings("unchecked")
             Map<String, Object> foundItem = (Map<String, Object>) request.get("foundItem");
             
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
-            
-            helper.setFrom("\"CampusFind\" <" + emailUser + ">");
-            helper.setTo(to);
-            helper.setSubject("Found Item Matching Your Lost Item: " + lostItem.get("itemName"));
-            
             String htmlContent = "<h3>Found Item Details</h3>" +
                     "<p><strong>Name:</strong> " + foundItem.get("itemName") + "</p>" +
                     "<p><strong>Description:</strong> " + foundItem.get("itemDescription") + "</p>" +
@@ -138,9 +166,8 @@ public class NotificationController {
                 htmlContent += "<p><img src=\"" + imageUrl + "\" width=\"300\" style=\"display:block;\"/></p>";
             }
             
-            helper.setText(htmlContent, true);
-            
-            mailSender.send(message);
+            emailOutboxService.enqueueHtml("\"CampusFind\" <" + emailUser + ">", to,
+                    "Found Item Matching Your Lost Item: " + lostItem.get("itemName"), htmlContent);
             
             return ResponseEntity.ok(Map.of("message", "Notification sent successfully"));
         } catch (Exception e) {
@@ -148,4 +175,10 @@ public class NotificationController {
                     .body(Map.of("message", "Failed to send email", "error", e.getMessage()));
         }
     }
+    
+    // Notifications are addressed by user email, or "admin" for the admin principal
+    private String recipientOf(Authentication authentication) {
+        Object principal = authentication.getPrincipal();
+        return principal instanceof User user ? user.getEmail() : authentication.getName();
+    }
 }
@@ -1,14 +1,24 @@
 package com.campustrack.controller;
 
+import com.campustrack.dto.CursorPage;
+import com.campustrack.dto.UserMatchResponse;
 import com.campustrack.model.*;
 import com.campustrack.repository.*;
 import com.campustrack.service.MatchService;
 import com.campustrack.service.AutoMatchService;
+import com.campustrack.service.ChatService;
+import com.campustrack.service.EmailOutboxService;
+import com.campustrack.service.UnreadCounterService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
 import java.util.*;
 
 // API for users to view their matches
@@ -32,7 +42,10 @@ public class UserMatchController {
     private MessageRepository messageRepository;
     
     @Autowired
-    private NotificationRepository notificationRepository;
+    private ChatService chatService;
+    
+    @Autowired
+    private UnreadCounterService unreadCounterService;
     
     @Autowired
     private MatchService matchService;
@@ -40,6 +53,12 @@ public class UserMatchController {
     @Autowired
     private AutoMatchService autoMatchService;
     
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+    
+    @Autowired
+    private KeysetPager keysetPager;
+    
     // Get all matches for current user
     @GetMapping
     public ResponseEntity<?> getMyMatches(Authentication authentication) {
@@ -51,54 +70,56 @@ public class UserMatchController {
             List<LostItem> myLostItems = lostItemRepository.findByUserEmailOrderByCreatedAtDesc(userEmail);
             List<FoundItem> myFoundItems = foundItemRepository.findByUserEmailOrderByCreatedAtDesc(userEmail);
             
-            List<Map<String, Object>> allMatches = new ArrayList<>();
+            List<UserMatchResponse> allMatches = new ArrayList<>();
             
-            // Get matches for each lost item
-            for (LostItem lostItem : myLostItems) {
-                List<Match> matches = matchRepository.findByLostItemIdOrderByCreatedAtDesc(lostItem.getId());
-                for (Match match : matches) {
-                    Optional<FoundItem> foundItem = foundItemRepository.findById(match.getFoundItemId());
-                    if (foundItem.isPresent()) {
-                        Map<String, Object> matchData = new HashMap<>();
-                        matchData.put("matchId", match.getId());
-                        matchData.put("type", "lost"); // User lost the item
-                        matchData.put("myItem", lostItem);
-                        matchData.put("matchedItem", foundItem.get());
-                        matchData.put("confidence", match.getConfidenceScore());
-                        matchData.put("status", match.getStatus());
-                        matchData.put("handoverStatus", match.getHandoverStatus());
-                        matchData.put("createdAt", match.getCreatedAt());
-                        allMatches.add(matchData);
-                    }
+            // Batch fetch: one $in query per side for matches, one findAllById per counterpart collection
+            Map<String, LostItem> lostById = new HashMap<>();
+            myLostItems.forEach(item -> lostById.put(item.getId(), item));
+            Map<String, FoundItem> foundById = new HashMap<>();
+            myFoundItems.forEach(item -> foundById.put(item.getId(), item));
+            
+            List<Match> lostMatches = lostById.isEmpty() ? List.of()
+                    : matchRepository.findByLostItemIdIn(lostById.keySet());
+            List<Match> foundMatches = foundById.isEmpty() ? List.of()
+                    : matchRepository.findByFoundItemIdIn(foundById.keySet());
+            
+            Set<String> matchedFoundIds = new HashSet<>();
+            lostMatches.forEach(match -> matchedFoundIds.add(match.getFoundItemId()));
+            Set<String> matchedLostIds = new HashSet<>();
+            foundMatches.forEach(match -> matchedLostIds.add(match.getLostItemId()));
+            
+            Map<String, FoundItem> matchedFoundById = new HashMap<>();
+            if (!matchedFoundIds.isEmpty()) {
+                foundItemRepository.findAllById(matchedFoundIds).forEach(item -> matchedFoundById.put(item.getId(), item));
+            }
+            Map<String, LostItem> matchedLostById = new HashMap<>();
+            if (!matchedLostIds.isEmpty()) {
+                lostItemRepository.findAllById(matchedLostIds).forEach(item -> matchedLostById.put(item.getId(), item));
+            }
+            
+            // Matches for the user's lost items
+            for (Match match : lostMatches) {
+                FoundItem foundItem = matchedFoundById.get(match.getFoundItemId());
+                if (foundItem != null) {
+                    allMatches.add(new UserMatchResponse(match.getId(), "lost", // User lost the item
+                            lostById.get(match.getLostItemId()), foundItem, match.getConfidenceScore(),
+                            match.getStatus(), match.getHandoverStatus(), match.getCreatedAt()));
                 }
             }
             
-            // Get matches for each found item
-            for (FoundItem foundItem : myFoundItems) {
-                List<Match> matches = matchRepository.findByFoundItemIdOrderByCreatedAtDesc(foundItem.getId());
-                for (Match match : matches) {
-                    Optional<LostItem> lostItem = lostItemRepository.findById(match.getLostItemId());
-                    if (lostItem.isPresent()) {
-                        Map<String, Object> matchData = new HashMap<>();
-                        matchData.put("matchId", match.getId());
-                        matchData.put("type", "found"); // User found the item
-                        matchData.put("myItem", foundItem);
-                        matchData.put("matchedItem", lostItem.get());
-                        matchData.put("confidence", match.getConfidenceScore());
-                        matchData.put("status", match.getStatus());
-                        matchData.put("handoverStatus", match.getHandoverStatus());
-                        matchData.put("createdAt", match.getCreatedAt());
-                        allMatches.add(matchData);
-                    }
+            // Matches for the user's found items
+            for (Match match : foundMatches) {
+                LostItem lostItem = matchedLostById.get(match.getLostItemId());
+                if (lostItem != null) {
+                    allMatches.add(new UserMatchResponse(match.getId(), "found", // User found the item
+                            foundById.get(match.getFoundItemId()), lostItem, match.getConfidenceScore(),
+                            match.getStatus(), match.getHandoverStatus(), match.getCreatedAt()));
                 }
             }
             
             // Sort by creation date (newest first)
-            allMatches.sort((a, b) -> {
-                java.time.Instant timeA = (java.time.Instant) a.get("createdAt");
-                java.time.Instant timeB = (java.time.Instant) b.get("createdAt");
-                return timeB.compareTo(timeA);
-            });
+            allMatches.sort(Comparator.comparing(UserMatchResponse::getCreatedAt,
+                    Comparator.nullsLast(Comparator.reverseOrder())));
             
             return ResponseEntity.ok(Map.of(
                 "message", "Matches retrieved successfully",
@@ -335,7 +356,7 @@ public class UserMatchController {
                     System.getenv("FRONTEND_URL") != null ? System.getenv("FRONTEND_URL") : "http://localhost:5173"
                 );
                 
-                autoMatchService.sendSimpleEmail(finder.getEmail(), finderSubject, finderBody);
+                emailOutboxService.enqueue(finder.getEmail(), finderSubject, finderBody);
             }
             
             // Email to the OWNER (who received the item)
@@ -388,7 +409,7 @@ public class UserMatchController {
                 System.getenv("FRONTEND_URL") != null ? System.getenv("FRONTEND_URL") : "http://localhost:5173"
             );
             
-            autoMatchService.sendSimpleEmail(owner.getEmail(), ownerSubject, ownerBody);
+            emailOutboxService.enqueue(owner.getEmail(), ownerSubject, ownerBody);
             
         } catch (Exception e) {
             System.err.println("Failed to send handover completion emails: " + e.getMessage());
@@ -445,25 +466,14 @@ public class UserMatchController {
                 messageText
             );
             
+            // A receiver with the conversation open sees it live, so it is stored as read
+            // and raises no notification, the same as a message sent over the WebSocket
+            boolean receiverConnected = chatService.isConnected(matchId, receiverEmail);
+            message.setRead(receiverConnected);
             messageRepository.save(message);
             
-            // Create notification for receiver
-            try {
-                Notification notification = new Notification();
-                notification.setUserEmail(receiverEmail);
-                notification.setTitle("💬 New Message from " + sender.getFullName());
-                notification.setMessage(messageText.length() > 50 ? 
-                    messageText.substring(0, 50) + "..." : messageText);
-                notification.setData(Map.of(
-                    "matchId", matchId,
-                    "type", "new_message",
-                    "senderName", sender.getFullName(),
-                    "senderEmail", sender.getEmail()
-                ));
-                notificationRepository.save(notification);
-            } catch (Exception e) {
-                System.err.println("Failed to create message notification: " + e.getMessage());
-            }
+            if (!receiverConnected) chatService.notifyReceiver(message);
+            chatService.broadcast(message);
             
             return ResponseEntity.ok(Map.of(
                 "message", "Message sent successfully",
@@ -475,29 +485,90 @@ public class UserMatchController {
         }
     }
     
-    // Get messages for a match
+    // Get messages for a match, oldest first. afterId returns only messages newer than that
+    // message; an unchanged result is answered with 304 when If-None-Match carries its ETag.
     @GetMapping("/{matchId}/messages")
     public ResponseEntity<?> getMessages(@PathVariable String matchId,
+                                        @RequestParam(value = "cursor", required = false) String cursor,
+                                        @RequestParam(value = "afterId", required = false) String afterId,
+                                        @RequestParam(value = "limit", defaultValue = "50") int limit,
+                                        @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch,
                                         Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
-            List<Message> messages = messageRepository.findByMatchIdOrderByCreatedAtAsc(matchId);
             
-            // Mark messages as read if user is the receiver
+            // Resume right after a known message: one range scan on the (matchId, createdAt) index
+            if ((cursor == null || cursor.isBlank()) && afterId != null && !afterId.isBlank()) {
+                Message after = messageRepository.findById(afterId)
+                        .filter(msg -> matchId.equals(msg.getMatchId()))
+                        .orElseThrow(() -> new IllegalArgumentException("Invalid afterId"));
+                cursor = KeysetPager.cursorAt(
+                        after.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant(), after.getId());
+            }
+            
+            CursorPage<Message> page = keysetPager.page(Criteria.where("matchId").is(matchId), Message.class,
+                    cursor, limit, true,
+                    msg -> msg.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant(), Message::getId);
+            List<Message> messages = page.getItems();
+            
+            // Show the page as it looks once read by this user; the ETag covers that view, so an
+            // unchanged page is answered before anything is written
+            boolean hasUnread = false;
             for (Message msg : messages) {
-                if (msg.getReceiverEmail().equals(user.getEmail()) && !msg.isRead()) {
+                if (user.getEmail().equals(msg.getReceiverEmail()) && !msg.isRead()) {
                     msg.setRead(true);
-                    messageRepository.save(msg);
+                    hasUnread = true;
                 }
             }
             
-            return ResponseEntity.ok(Map.of(
-                "message", "Messages retrieved successfully",
-                "messages", messages
-            ));
+            String etag = messagesEtag(matchId, cursor, page);
+            if (etagMatches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            
+            // Mark the conversation read for the receiver in one updateMany, only when this page
+            // actually shows them something unread, and only up to its last message: later
+            // pages have not been seen yet
+            if (hasUnread) {
+                Message last = messages.get(messages.size() - 1);
+                long marked = messageRepository.markConversationReadUpTo(matchId, user.getEmail(),
+                        last.getCreatedAt(), last.getId());
+                unreadCounterService.messagesRead(user.getEmail(), marked);
+            }
+            
+            Map<String, Object> body = new HashMap<>();
+            body.put("message", "Messages retrieved successfully");
+            body.put("messages", messages);
+            body.put("nextCursor", page.getNextCursor());
+            return ResponseEntity.ok().eTag(etag).body(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500)
                     .body(Map.of("message", "Failed to fetch messages", "error", e.getMessage()));
         }
     }
+    
+    // If-None-Match is "*" or a comma-separated list of entity tags, weak ones prefixed with W/;
+    // a listed tag has to equal the current one exactly
+    private boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) return true;
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals(etag)) return true;
+        }
+        return false;
+    }
+    
+    // Changes whenever the page gains a message or a read flag flips
+    private String messagesEtag(String matchId, String cursor, CursorPage<Message> page) {
+        StringBuilder state = new StringBuilder(matchId).append('|').append(cursor).append('|')
+                .append(page.getNextCursor());
+        for (Message msg : page.getItems()) {
+            state.append('|').append(msg.getId()).append(msg.isRead() ? 'r' : 'u');
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
 }
@@ -0,0 +1,14 @@
+package com.campustrack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// One page of a keyset-paginated listing; nextCursor is null on the last page
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+}
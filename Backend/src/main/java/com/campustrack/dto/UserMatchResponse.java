@@ -0,0 +1,20 @@
+package com.campustrack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+// One entry of GET /api/user/matches: the user's own item and the item it matched
+@Data
+@AllArgsConstructor
+public class UserMatchResponse {
+    private String matchId;
+    private String type; // lost or found, from the user's point of view
+    private Object myItem;
+    private Object matchedItem;
+    private Integer confidence;
+    private String status;
+    private String handoverStatus;
+    private Instant createdAt;
+}
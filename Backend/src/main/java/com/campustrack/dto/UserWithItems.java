@@ -0,0 +1,27 @@
+package com.campustrack.dto;
+
+import com.campustrack.model.FoundItem;
+import com.campustrack.model.LostItem;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+// User profile fields with their reported items, as produced by the admin details aggregation
+@Data
+public class UserWithItems {
+    private String id;
+    private String role;
+    private String fullName;
+    private String email;
+    private String contactNumber;
+    private String enrollmentNumber;
+    private Integer semester;
+    private Integer year;
+    private String staffId;
+    private String department;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private List<LostItem> lostItems;
+    private List<FoundItem> foundItems;
+}
@@ -2,12 +2,15 @@ package com.campustrack.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 
 @Data
 @Document(collection = "contacts")
+@CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}")
 public class Contact {
     @Id
     private String id;
@@ -15,6 +18,7 @@ public class Contact {
     private String email;
     private String phone;
     private String message;
+    @Indexed
     private String status = "unread"; // unread, read
     private LocalDateTime createdAt = LocalDateTime.now();
 }
@@ -1,9 +1,12 @@
 package com.campustrack.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -12,6 +15,8 @@ import java.time.LocalDate;
 // Model class for items that users have found and reported
 @Data
 @Document(collection = "founditems")
+@CompoundIndex(name = "userEmail_createdAt", def = "{'userEmail': 1, 'createdAt': -1}")
+@CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}")
 public class FoundItem {
     
     @Id
@@ -21,6 +26,7 @@ public class FoundItem {
     private String itemDescription;
     private String placeFound;
     private String timeFound;
+    @Indexed  // dashboard chart range (AdminController item-stats)
     private LocalDate dateFound;
     private String category;
     private String userName;
@@ -28,6 +34,15 @@ public class FoundItem {
     private String image;
     private String status = "pending"; // pending or claimed
     
+    // Auto-match progress: queued, running, done or failed (see MatchingPipeline)
+    @Indexed(sparse = true)
+    private String matchingStatus;
+    private int matchingAttempts;
+    
+    // MinHash of the item name, used for LSH candidate lookup (not sent to clients)
+    @JsonIgnore
+    private int[] nameSignature;
+    
     @CreatedDate
     private Instant createdAt;
     
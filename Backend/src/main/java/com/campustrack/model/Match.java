@@ -3,13 +3,17 @@ package com.campustrack.model;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
 
-// Stores matches between lost and found items
+// Stores matches between lost and found items. The unique (lostItemId, foundItemId) index is
+// built by MatchIndexMigration, which first removes duplicate pairs.
 @Data
 @Document(collection = "matches")
+@CompoundIndex(name = "lostItemId_createdAt", def = "{'lostItemId': 1, 'createdAt': -1}")
+@CompoundIndex(name = "foundItemId_createdAt", def = "{'foundItemId': 1, 'createdAt': -1}")
 public class Match {
     
     @Id
@@ -1,11 +1,14 @@
 package com.campustrack.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 
 @Document(collection = "messages")
+@CompoundIndex(name = "matchId_createdAt_id", def = "{'matchId': 1, 'createdAt': 1, '_id': 1}")
+@CompoundIndex(name = "receiverEmail_read_createdAt", def = "{'receiverEmail': 1, 'read': 1, 'createdAt': -1}")
 public class Message {
     @Id
     private String id;
@@ -3,6 +3,7 @@ package com.campustrack.model;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -11,6 +12,7 @@ import java.util.Map;
 // Model for storing user notifications about matches
 @Data
 @Document(collection = "notifications")
+@CompoundIndex(name = "userEmail_createdAt_id", def = "{'userEmail': 1, 'createdAt': -1, '_id': -1}")
 public class Notification {
     
     @Id
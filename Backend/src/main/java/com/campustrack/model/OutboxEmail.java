@@ -0,0 +1,40 @@
+package com.campustrack.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Email waiting to be sent by the background dispatcher (see EmailOutboxService)
+@Data
+@Document(collection = "outbox_emails")
+@CompoundIndex(name = "status_next_attempt", def = "{'status': 1, 'nextAttemptAt': 1}")
+@CompoundIndex(name = "status_lease", def = "{'status': 1, 'leaseExpiresAt': 1}")
+public class OutboxEmail {
+    
+    @Id
+    private String id;
+    
+    private String from;
+    private String to;
+    private String replyTo;
+    private String subject;
+    private String body;
+    private boolean html;
+    
+    private String status = "pending"; // pending, sending (claimed by a dispatcher), sent or failed
+    private int attempts;
+    private Instant nextAttemptAt;
+    private String lastError;
+    private Instant sentAt;
+    
+    // Set while a dispatcher holds the email; an expired lease makes it claimable again
+    private String claimToken;
+    private Instant leaseExpiresAt;
+    
+    @CreatedDate
+    private Instant createdAt;
+}
@@ -0,0 +1,21 @@
+package com.campustrack.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Per-user unread notification and message counts, kept up to date with atomic $inc
+// (see UnreadCounterService)
+@Data
+@Document(collection = "unread_counters")
+public class UnreadCounter {
+    
+    @Id
+    private String userEmail;
+    
+    private long notifications;
+    private long messages;
+    private Instant updatedAt;
+}
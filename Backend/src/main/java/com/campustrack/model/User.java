@@ -4,6 +4,7 @@ import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -11,12 +12,14 @@ import java.time.Instant;
 
 @Data
 @Document(collection = "users")
+@CompoundIndex(name = "role_createdAt_id", def = "{'role': 1, 'createdAt': -1, '_id': -1}")
 public class User {
     
     @Id
     private String id;
     
     // Role determines access level and required fields
+    @Indexed
     private String role; // student, staff, admin
     
     // Common fields
@@ -42,6 +45,7 @@ public class User {
     
     private String password;
     
+    @Indexed(sparse = true)
     private String resetPasswordToken;
     private Instant resetPasswordExpires;
     
@@ -9,5 +9,4 @@ import java.util.List;
 @Repository
 public interface ContactRepository extends MongoRepository<Contact, String> {
     List<Contact> findByStatus(String status);
-    List<Contact> findAllByOrderByCreatedAtDesc();
 }
@@ -2,12 +2,20 @@ package com.campustrack.repository;
 
 import com.campustrack.model.FoundItem;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
 public interface FoundItemRepository extends MongoRepository<FoundItem, String> {
     List<FoundItem> findByUserEmailOrderByCreatedAtDesc(String userEmail);
-    List<FoundItem> findAllByOrderByCreatedAtDesc();
+    
+    // Items found on or after the given day (undated ones by report time), with only the
+    // fields the admin dashboard chart reads
+    @Query(value = "{ '$or': [ { 'dateFound': { '$gte': ?0 } }, { 'dateFound': null, 'createdAt': { '$gte': ?1 } } ] }",
+           fields = "{ 'dateFound': 1, 'createdAt': 1, 'status': 1 }")
+    List<FoundItem> findChartItemsSince(LocalDate since, Instant reportedSince);
 }
@@ -0,0 +1,97 @@
+package com.campustrack.repository;
+
+import com.campustrack.dto.CursorPage;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+// Keyset (createdAt, id) pagination shared by the listing endpoints. The cursor is the
+// position of the last returned document, so each page is one indexed range scan no
+// matter how deep the client has paged.
+@Component
+public class KeysetPager {
+    
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+    
+    // Listings whose body is a bare array return the next cursor in this header
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    // Page of documents matching filter (may be null), newest first unless ascending is set
+    public <T> CursorPage<T> page(Criteria filter, Class<T> type, String cursor, int limit, boolean ascending,
+                                  Function<T, Instant> createdAtOf, Function<T, String> idOf) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        
+        Criteria criteria = filter != null ? filter : new Criteria();
+        if (cursor != null && !cursor.isBlank()) {
+            criteria = new Criteria().andOperator(criteria, after(cursor, ascending));
+        }
+        
+        Query query = new Query(criteria)
+                .with(Sort.by(direction, "createdAt").and(Sort.by(direction, "id")))
+                .limit(pageSize + 1);
+        List<T> results = mongoTemplate.find(query, type);
+        
+        if (results.size() <= pageSize) {
+            return new CursorPage<>(results, null);
+        }
+        List<T> items = results.subList(0, pageSize);
+        T last = items.get(pageSize - 1);
+        return new CursorPage<>(items, encode(createdAtOf.apply(last), idOf.apply(last)));
+    }
+    
+    // Cursor positioned at an existing document, so the next page starts right after it
+    public static String cursorAt(Instant createdAt, String id) {
+        return encode(createdAt, id);
+    }
+    
+    // Documents strictly after the cursor position in the requested order; also used by
+    // aggregation pipelines that page the same way
+    public Criteria after(String cursor, boolean ascending) {
+        String[] parts = decode(cursor);
+        Date createdAt = new Date(Long.parseLong(parts[0]));
+        // The id mapping only converts equality and $in values to ObjectId, so the range
+        // tie-break has to compare against an ObjectId itself
+        Object id = ObjectId.isValid(parts[1]) ? new ObjectId(parts[1]) : parts[1];
+        
+        Criteria sameTime = new Criteria().andOperator(
+                Criteria.where("createdAt").is(createdAt),
+                ascending ? Criteria.where("id").gt(id) : Criteria.where("id").lt(id));
+        Criteria laterTime = ascending ? Criteria.where("createdAt").gt(createdAt)
+                : Criteria.where("createdAt").lt(createdAt);
+        return new Criteria().orOperator(laterTime, sameTime);
+    }
+    
+    private static String encode(Instant createdAt, String id) {
+        long millis = createdAt != null ? createdAt.toEpochMilli() : 0L;
+        String raw = millis + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String[] decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 2);
+            Long.parseLong(parts[0]);
+            if (parts.length != 2 || parts[1].isEmpty()) throw new IllegalArgumentException();
+            return parts;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -2,12 +2,20 @@ package com.campustrack.repository;
 
 import com.campustrack.model.LostItem;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
 public interface LostItemRepository extends MongoRepository<LostItem, String> {
     List<LostItem> findByUserEmailOrderByCreatedAtDesc(String userEmail);
-    List<LostItem> findAllByOrderByCreatedAtDesc();
+    
+    // Items lost on or after the given day (undated ones by report time), with only the
+    // fields the admin dashboard chart reads
+    @Query(value = "{ '$or': [ { 'dateLost': { '$gte': ?0 } }, { 'dateLost': null, 'createdAt': { '$gte': ?1 } } ] }",
+           fields = "{ 'dateLost': 1, 'createdAt': 1, 'status': 1 }")
+    List<LostItem> findChartItemsSince(LocalDate since, Instant reportedSince);
 }
@@ -4,12 +4,13 @@ import com.campustrack.model.Match;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface MatchRepository extends MongoRepository<Match, String> {
-    Optional<Match> findByLostItemIdAndFoundItemId(String lostItemId, String foundItemId);
+public interface MatchRepository extends MongoRepository<Match, String>, MatchRepositoryCustom {
     List<Match> findByLostItemIdOrderByCreatedAtDesc(String lostItemId);
     List<Match> findByFoundItemIdOrderByCreatedAtDesc(String foundItemId);
+    List<Match> findByLostItemIdIn(Collection<String> lostItemIds);
+    List<Match> findByFoundItemIdIn(Collection<String> foundItemIds);
 }
@@ -0,0 +1,12 @@
+package com.campustrack.repository;
+
+import com.campustrack.model.Match;
+
+import java.util.Optional;
+
+// Match operations that need MongoTemplate rather than derived queries
+public interface MatchRepositoryCustom {
+    // Atomically insert the match unless one already exists for its (lostItemId, foundItemId).
+    // Returns the stored match only when this call created it.
+    Optional<Match> insertIfAbsent(Match match);
+}
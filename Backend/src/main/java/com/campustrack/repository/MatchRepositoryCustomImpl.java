@@ -0,0 +1,45 @@
+package com.campustrack.repository;
+
+import com.campustrack.model.Match;
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public class MatchRepositoryCustomImpl implements MatchRepositoryCustom {
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    // Single upsert with $setOnInsert, backed by the unique (lostItemId, foundItemId) index
+    @Override
+    public Optional<Match> insertIfAbsent(Match match) {
+        Instant createdAt = match.getCreatedAt() != null ? match.getCreatedAt() : Instant.now();
+        Query query = Query.query(Criteria.where("lostItemId").is(match.getLostItemId())
+                .and("foundItemId").is(match.getFoundItemId()));
+        Update update = new Update()
+                .setOnInsert("status", match.getStatus())
+                .setOnInsert("confidenceScore", match.getConfidenceScore())
+                .setOnInsert("handoverStatus", match.getHandoverStatus())
+                .setOnInsert("createdAt", createdAt);
+        
+        try {
+            UpdateResult result = mongoTemplate.upsert(query, update, Match.class);
+            if (result.getUpsertedId() == null) {
+                return Optional.empty(); // Already matched
+            }
+            match.setId(result.getUpsertedId().asObjectId().getValue().toHexString());
+            match.setCreatedAt(createdAt);
+            return Optional.of(match);
+        } catch (DuplicateKeyException e) {
+            // A concurrent upsert for the same pair won the race
+            return Optional.empty();
+        }
+    }
+}
@@ -5,10 +5,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.List;
 
-public interface MessageRepository extends MongoRepository<Message, String> {
-    // Find all messages in a specific match conversation
-    List<Message> findByMatchIdOrderByCreatedAtAsc(String matchId);
-    
+public interface MessageRepository extends MongoRepository<Message, String>, MessageRepositoryCustom {
     // Find all unread messages for a user
     List<Message> findByReceiverEmailAndReadFalseOrderByCreatedAtDesc(String receiverEmail);
     
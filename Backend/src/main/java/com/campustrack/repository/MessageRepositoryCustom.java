@@ -0,0 +1,11 @@
+package com.campustrack.repository;
+
+import java.time.LocalDateTime;
+
+// Message operations that need MongoTemplate rather than derived queries
+public interface MessageRepositoryCustom {
+    // Mark the unread messages of the conversation sent to receiverEmail as read in one
+    // updateMany, up to and including the message (lastCreatedAt, lastId) in (createdAt, _id)
+    // order; later messages stay unread. Returns the number of messages changed.
+    long markConversationReadUpTo(String matchId, String receiverEmail, LocalDateTime lastCreatedAt, String lastId);
+}
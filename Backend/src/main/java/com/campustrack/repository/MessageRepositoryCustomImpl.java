@@ -0,0 +1,30 @@
+package com.campustrack.repository;
+
+import com.campustrack.model.Message;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+public class MessageRepositoryCustomImpl implements MessageRepositoryCustom {
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Override
+    public long markConversationReadUpTo(String matchId, String receiverEmail, LocalDateTime lastCreatedAt, String lastId) {
+        // The id mapping does not convert range values, so compare against an ObjectId itself
+        Object id = ObjectId.isValid(lastId) ? new ObjectId(lastId) : lastId;
+        Query query = Query.query(Criteria.where("matchId").is(matchId)
+                .and("receiverEmail").is(receiverEmail)
+                .and("read").is(false)
+                .orOperator(Criteria.where("createdAt").lt(lastCreatedAt),
+                        Criteria.where("createdAt").is(lastCreatedAt).and("id").lte(id)));
+        return mongoTemplate.updateMulti(query, Update.update("read", true), Message.class)
+                .getModifiedCount();
+    }
+}
@@ -7,6 +7,6 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface NotificationRepository extends MongoRepository<Notification, String> {
+public interface NotificationRepository extends MongoRepository<Notification, String>, NotificationRepositoryCustom {
     List<Notification> findByUserEmailOrderByCreatedAtDesc(String userEmail);
 }
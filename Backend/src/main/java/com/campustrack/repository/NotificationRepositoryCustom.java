@@ -0,0 +1,11 @@
+package com.campustrack.repository;
+
+// Notification operations that need MongoTemplate rather than derived queries
+public interface NotificationRepositoryCustom {
+    // Mark one notification read only if it is still unread; true when this call changed it
+    boolean markRead(String id);
+    
+    // Mark every unread notification of the user as read in one updateMany.
+    // Returns the number of notifications changed.
+    long markAllRead(String userEmail);
+}
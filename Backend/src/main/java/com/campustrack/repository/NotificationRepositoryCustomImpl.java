@@ -0,0 +1,28 @@
+package com.campustrack.repository;
+
+import com.campustrack.model.Notification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+public class NotificationRepositoryCustomImpl implements NotificationRepositoryCustom {
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Override
+    public boolean markRead(String id) {
+        Query query = Query.query(Criteria.where("_id").is(id).and("isRead").is(false));
+        return mongoTemplate.updateFirst(query, Update.update("isRead", true), Notification.class)
+                .getModifiedCount() > 0;
+    }
+    
+    @Override
+    public long markAllRead(String userEmail) {
+        Query query = Query.query(Criteria.where("userEmail").is(userEmail).and("isRead").is(false));
+        return mongoTemplate.updateMulti(query, Update.update("isRead", true), Notification.class)
+                .getModifiedCount();
+    }
+}
@@ -0,0 +1,9 @@
+package com.campustrack.repository;
+
+import com.campustrack.model.OutboxEmail;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxEmailRepository extends MongoRepository<OutboxEmail, String>, OutboxEmailRepositoryCustom {
+}
@@ -0,0 +1,17 @@
+package com.campustrack.repository;
+
+import com.campustrack.model.OutboxEmail;
+
+import java.time.Instant;
+import java.util.List;
+
+// Outbox operations that need MongoTemplate rather than derived queries
+public interface OutboxEmailRepositoryCustom {
+    // Atomically claim up to limit due emails (pending and due, or sending with an expired lease),
+    // one findAndModify each, so concurrent dispatchers never receive the same email
+    List<OutboxEmail> claimDue(Instant now, Instant leaseUntil, String claimToken, int limit);
+    
+    // Write back status, attempts and schedule of a claimed email and release the claim.
+    // False when the lease expired and another dispatcher has claimed it since.
+    boolean complete(OutboxEmail email);
+}
@@ -0,0 +1,56 @@
+package com.campustrack.repository;
+
+import com.campustrack.model.OutboxEmail;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+public class OutboxEmailRepositoryCustomImpl implements OutboxEmailRepositoryCustom {
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Override
+    public List<OutboxEmail> claimDue(Instant now, Instant leaseUntil, String claimToken, int limit) {
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("status").is("pending").and("nextAttemptAt").lte(now),
+                Criteria.where("status").is("sending").and("leaseExpiresAt").lte(now)))
+                .with(Sort.by("nextAttemptAt"));
+        Update update = new Update()
+                .set("status", "sending")
+                .set("claimToken", claimToken)
+                .set("leaseExpiresAt", leaseUntil);
+        
+        List<OutboxEmail> claimed = new ArrayList<>();
+        while (claimed.size() < limit) {
+            OutboxEmail email = mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().returnNew(true), OutboxEmail.class);
+            if (email == null) break;
+            claimed.add(email);
+        }
+        return claimed;
+    }
+    
+    @Override
+    public boolean complete(OutboxEmail email) {
+        Query query = Query.query(Criteria.where("_id").is(email.getId())
+                .and("claimToken").is(email.getClaimToken()));
+        Update update = new Update()
+                .set("status", email.getStatus())
+                .set("attempts", email.getAttempts())
+                .set("nextAttemptAt", email.getNextAttemptAt())
+                .set("lastError", email.getLastError())
+                .set("sentAt", email.getSentAt())
+                .unset("claimToken")
+                .unset("leaseExpiresAt");
+        return mongoTemplate.updateFirst(query, update, OutboxEmail.class).getModifiedCount() > 0;
+    }
+}
@@ -8,7 +8,7 @@ import java.time.Instant;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
     Optional<User> findByEmailAndRole(String email, String role);
     Optional<User> findByEmail(String email);
     Optional<User> findByResetPasswordTokenAndResetPasswordExpiresGreaterThan(
@@ -0,0 +1,11 @@
+package com.campustrack.repository;
+
+import com.campustrack.dto.CursorPage;
+import com.campustrack.dto.UserWithItems;
+
+// User operations that need MongoTemplate rather than derived queries
+public interface UserRepositoryCustom {
+    // One page of users with the given role, newest first, each with its lost and found items
+    // (newest first), in a single aggregation. userId, when set, restricts it to that user.
+    CursorPage<UserWithItems> findWithItems(String role, String userId, String cursor, int limit);
+}
@@ -0,0 +1,68 @@
+package com.campustrack.repository;
+
+import com.campustrack.dto.CursorPage;
+import com.campustrack.dto.UserWithItems;
+import com.campustrack.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationPipeline;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.List;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private KeysetPager keysetPager;
+    
+    // $match role (+ keyset cursor) on the role_createdAt_id index, $sort, $limit, then one
+    // $lookup per item collection on their userEmail indexes, so only the page is joined.
+    // The $project leaves out the password and any other field not shown to admins.
+    @Override
+    public CursorPage<UserWithItems> findWithItems(String role, String userId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, KeysetPager.MAX_LIMIT));
+        
+        Criteria criteria = Criteria.where("role").is(role);
+        if (userId != null && !userId.isBlank()) {
+            criteria = criteria.and("id").is(userId);
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            criteria = new Criteria().andOperator(criteria, keysetPager.after(cursor, false));
+        }
+        
+        TypedAggregation<User> aggregation = Aggregation.newAggregation(User.class,
+                Aggregation.match(criteria),
+                Aggregation.sort(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"))),
+                Aggregation.limit(pageSize + 1),
+                itemsLookup("lostitems", "lostItems"),
+                itemsLookup("founditems", "foundItems"),
+                Aggregation.project("role", "fullName", "email", "contactNumber", "enrollmentNumber",
+                        "semester", "year", "staffId", "department", "createdAt", "updatedAt",
+                        "lostItems", "foundItems"));
+        
+        List<UserWithItems> results = mongoTemplate.aggregate(aggregation, UserWithItems.class).getMappedResults();
+        if (results.size() <= pageSize) {
+            return new CursorPage<>(results, null);
+        }
+        List<UserWithItems> items = results.subList(0, pageSize);
+        UserWithItems last = items.get(pageSize - 1);
+        return new CursorPage<>(items, KeysetPager.cursorAt(last.getCreatedAt(), last.getId()));
+    }
+    
+    // Items reported by the user, newest first (localField/foreignField with a pipeline needs MongoDB 5.0+)
+    private AggregationOperation itemsLookup(String collection, String as) {
+        return Aggregation.lookup()
+                .from(collection)
+                .localField("email")
+                .foreignField("userEmail")
+                .pipeline(AggregationPipeline.of(Aggregation.sort(Sort.Direction.DESC, "createdAt")))
+                .as(as);
+    }
+}
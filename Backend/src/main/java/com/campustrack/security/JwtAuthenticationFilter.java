@@ -1,7 +1,7 @@
 package com.campustrack.security;
 
 import com.campustrack.model.User;
-import com.campustrack.repository.UserRepository;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,16 +17,19 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.Set;
 
 // Filter to validate JWT tokens on every request
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
+    private static final Set<String> QUERY_TOKEN_PATHS = Set.of("/api/notifications/stream");
+    
     @Autowired
     private JwtUtil jwtUtil;
     
     @Autowired
-    private UserRepository userRepository;
+    private UserPrincipalCache userPrincipalCache;
     
     // Check if request has valid JWT token
     @Override
@@ -36,18 +39,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         
         // Extract token from Authorization header
-        String authHeader = request.getHeader("Authorization");
+        String token = resolveToken(request);
         
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (token == null) {
             filterChain.doFilter(request, response);
             return;
         }
         
         try {
-            String token = authHeader.substring(7);
-            
-            if (jwtUtil.validateToken(token)) {
-                String role = jwtUtil.extractRole(token);
+            // Parse and verify the token once, then read every claim from the result
+            Claims claims = jwtUtil.parseValidClaims(token);
+            if (claims != null) {
+                String role = claims.get("role", String.class);
                 
                 if ("admin".equals(role)) {
                     // Admin authentication
@@ -61,8 +64,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                 } else {
                     // User authentication
-                    String userId = jwtUtil.extractUserId(token);
-                    Optional<User> userOpt = userRepository.findById(userId);
+                    String userId = claims.get("id", String.class);
+                    Optional<User> userOpt = userId != null ? userPrincipalCache.get(userId) : Optional.empty();
                     
                     if (userOpt.isPresent()) {
                         User user = userOpt.get();
@@ -83,4 +86,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
+    
+    // Bearer header, or a "token" query parameter on stream endpoints, since the browser
+    // EventSource API cannot send headers
+    private String resolveToken(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        if (QUERY_TOKEN_PATHS.contains(request.getRequestURI())) {
+            return request.getParameter("token");
+        }
+        return null;
+    }
 }
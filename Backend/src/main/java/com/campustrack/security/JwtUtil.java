@@ -1,9 +1,11 @@
 package com.campustrack.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -22,9 +24,16 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
     
-    // Get signing key from secret
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    private Key signingKey;
+    private JwtParser jwtParser;
+    
+    // Build the signing key and parser once; both are immutable and thread-safe
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
     
     // Create JWT token for authenticated user
@@ -38,7 +47,7 @@ public class JwtUtil {
                 .setSubject(userId)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
@@ -52,16 +61,12 @@ public class JwtUtil {
                 .setSubject("admin")
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
     public Claims extractClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
     }
     
     public String extractUserId(String token) {
@@ -72,6 +77,15 @@ public class JwtUtil {
         return extractClaims(token).get("role", String.class);
     }
     
+    // Verify the token once and return its claims, or null when it is invalid or expired
+    public Claims parseValidClaims(String token) {
+        try {
+            return extractClaims(token);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+    
     public boolean validateToken(String token) {
         try {
             extractClaims(token);
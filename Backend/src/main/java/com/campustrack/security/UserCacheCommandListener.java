@@ -0,0 +1,108 @@
+package com.campustrack.security;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Drops cached principals on writes to the users collection that bypass the mapping events,
+// e.g. MongoTemplate updateFirst/updateMulti/findAndModify/remove. Evicts once the command has
+// finished, so a reload cannot read the document from before the write.
+@Component
+public class UserCacheCommandListener implements CommandListener, MongoClientSettingsBuilderCustomizer {
+    
+    private static final String USERS = "users";
+    
+    // Lazy: the cache needs the repository, which needs the client this listener is part of
+    @Autowired
+    @Lazy
+    private UserPrincipalCache userPrincipalCache;
+    
+    // Ids touched by each in-flight write, by request id; an empty set means "unknown, clear all"
+    private final Map<Integer, Set<String>> inFlight = new ConcurrentHashMap<>();
+    
+    @Override
+    public void customize(MongoClientSettings.Builder builder) {
+        builder.addCommandListener(this);
+    }
+    
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String name = event.getCommandName();
+        BsonDocument command = event.getCommand();
+        BsonValue collection = command.get(name);
+        if (collection == null || !collection.isString() || !USERS.equals(collection.asString().getValue())) {
+            return;
+        }
+        
+        switch (name) {
+            case "update" -> inFlight.put(event.getRequestId(), idsOf(command.getArray("updates", new BsonArray())));
+            case "delete" -> inFlight.put(event.getRequestId(), idsOf(command.getArray("deletes", new BsonArray())));
+            case "findAndModify" -> {
+                Set<String> ids = new HashSet<>();
+                addId(command.getDocument("query", new BsonDocument()), ids);
+                inFlight.put(event.getRequestId(), ids);
+            }
+            case "drop" -> inFlight.put(event.getRequestId(), Set.of());
+            default -> { }
+        }
+    }
+    
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        evict(inFlight.remove(event.getRequestId()));
+    }
+    
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        // A failed multi-document write may still have changed some documents
+        evict(inFlight.remove(event.getRequestId()));
+    }
+    
+    private void evict(Set<String> ids) {
+        if (ids == null) return;
+        if (ids.isEmpty()) {
+            userPrincipalCache.clear();
+        } else {
+            ids.forEach(userPrincipalCache::evict);
+        }
+    }
+    
+    // Ids of the { q: ... } statements of an update/delete, or an empty set if any of them
+    // does not filter on a single _id
+    private static Set<String> idsOf(BsonArray statements) {
+        Set<String> ids = new HashSet<>();
+        for (BsonValue statement : statements) {
+            if (!statement.isDocument() || !addId(statement.asDocument().getDocument("q", new BsonDocument()), ids)) {
+                return Set.of();
+            }
+        }
+        return ids;
+    }
+    
+    private static boolean addId(BsonDocument filter, Set<String> ids) {
+        BsonValue id = filter.get("_id");
+        if (id == null) return false;
+        if (id.isObjectId()) {
+            ids.add(id.asObjectId().getValue().toHexString());
+        } else if (id.isString()) {
+            ids.add(id.asString().getValue());
+        } else {
+            return false;
+        }
+        return true;
+    }
+}
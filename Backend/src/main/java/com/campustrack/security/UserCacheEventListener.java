@@ -0,0 +1,34 @@
+package com.campustrack.security;
+
+import com.campustrack.model.User;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+// Drops cached principals when a user document changes
+@Component
+public class UserCacheEventListener extends AbstractMongoEventListener<User> {
+    
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+    
+    @Override
+    public void onAfterSave(AfterSaveEvent<User> event) {
+        if (event.getSource().getId() != null) {
+            userPrincipalCache.evict(event.getSource().getId());
+        }
+    }
+    
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<User> event) {
+        Object id = event.getSource().get("_id");
+        if (id instanceof ObjectId || id instanceof String) {
+            userPrincipalCache.evict(id.toString());
+        } else {
+            userPrincipalCache.clear(); // Bulk delete: the affected ids are not known here
+        }
+    }
+}
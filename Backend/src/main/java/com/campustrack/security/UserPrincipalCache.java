@@ -0,0 +1,82 @@
+package com.campustrack.security;
+
+import com.campustrack.model.User;
+import com.campustrack.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Bounded LRU cache of authenticated users keyed by id, so the JWT filter does not hit
+// Mongo on every request. Entries are evicted when the user document is saved, updated or
+// deleted (see UserCacheEventListener and UserCacheCommandListener); the TTL is the upper bound
+// on staleness for a write that reaches Mongo without going through this application.
+@Component
+public class UserPrincipalCache {
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Value("${security.principal-cache.max-size:10000}")
+    private int maxSize;
+    
+    @Value("${security.principal-cache.ttl-ms:300000}")
+    private long ttlMs;
+    
+    // Bumped on every evict/clear, under the entries lock
+    private long generation;
+    
+    private final Map<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxSize;
+        }
+    };
+    
+    // Cached user, loading from Mongo on a miss or after the entry expired. The load runs
+    // outside the lock; its result is only cached if nothing was evicted meanwhile, so a write
+    // that lands between findById and the put cannot bring the old document back.
+    public Optional<User> get(String userId) {
+        long now = System.currentTimeMillis();
+        long loadGeneration;
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.expiresAt > now) {
+                return Optional.of(entry.user);
+            }
+            loadGeneration = generation;
+        }
+        
+        Optional<User> user = userRepository.findById(userId);
+        synchronized (entries) {
+            if (generation != loadGeneration) {
+                return user;
+            }
+            if (user.isPresent()) {
+                entries.put(userId, new Entry(user.get(), now + ttlMs));
+            } else {
+                entries.remove(userId);
+            }
+        }
+        return user;
+    }
+    
+    public void evict(String userId) {
+        synchronized (entries) {
+            generation++;
+            entries.remove(userId);
+        }
+    }
+    
+    public void clear() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+        }
+    }
+    
+    private record Entry(User user, long expiresAt) {}
+}
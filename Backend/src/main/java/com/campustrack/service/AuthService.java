@@ -7,11 +7,8 @@ import com.campustrack.security.JwtUtil;
 import org.mindrot.jbcrypt.BCrypt;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
-import jakarta.mail.internet.MimeMessage;
 import java.security.MessageDigest;
 import java.security.SecureRandom;
 import java.time.Instant;
@@ -29,7 +26,7 @@ public class AuthService {
     private JwtUtil jwtUtil;
     
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailOutboxService emailOutboxService;
     
     @Value("${admin.password}")
     private String adminPassword;
@@ -102,14 +99,9 @@ public class AuthService {
         
         String resetUrl = frontendUrl + "/reset-password/" + resetToken;
         
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true);
-        helper.setFrom("CampusFind Team <" + emailFrom + ">");
-        helper.setTo(user.getEmail());
-        helper.setSubject("Password Reset Link");
-        helper.setText("<p>Click <a href=\"" + resetUrl + "\">here</a> to reset your password. This link expires in 10 minutes.</p>", true);
-        
-        mailSender.send(message);
+        emailOutboxService.enqueueHtml("CampusFind Team <" + emailFrom + ">", user.getEmail(),
+                "Password Reset Link",
+                "<p>Click <a href=\"" + resetUrl + "\">here</a> to reset your password. This link expires in 10 minutes.</p>");
         
         return new MessageResponse("Reset link sent to your email!");
     }
@@ -7,15 +7,17 @@ import com.campustrack.model.Notification;
 import com.campustrack.repository.FoundItemRepository;
 import com.campustrack.repository.LostItemRepository;
 import com.campustrack.repository.MatchRepository;
-import com.campustrack.repository.NotificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.BiFunction;
 
 @Service
 public class AutoMatchService {
@@ -30,26 +32,58 @@ public class AutoMatchService {
     private MatchRepository matchRepository;
     
     @Autowired
-    private NotificationRepository notificationRepository;
+    private NotificationService notificationService;
     
-    @Autowired(required = false)
-    private JavaMailSender mailSender;
+    @Autowired
+    private ItemTokenIndex itemTokenIndex;
+    
+    @Autowired
+    private ItemEmbeddingScorer itemEmbeddingScorer;
+    
+    @Autowired
+    private EmailOutboxService emailOutboxService;
     
     @Value("${frontend.url:http://localhost:5173}")
     private String frontendUrl;
     
+    // Share of the text score taken from embedding cosine similarity when a model is loaded
+    @Value("${matching.embedding.weight:0.5}")
+    private double embeddingWeight;
+    
+    // Pairs whose embedding similarity reaches this are scored even without a name or category match
+    @Value("${matching.embedding.gate:0.75}")
+    private double embeddingGate;
+    
+    // Blocking: pairs within the same category and this many days between dateLost and dateFound
+    // are always scored; a pair missing a category stays in the block only inside the window and
+    // with the pre-blocking name similarity. Every other pair needs a near-identical name.
+    @Value("${matching.blocking.date-window-days:30}")
+    private long dateWindowDays;
+    
+    @Value("${matching.blocking.cross-block-name-threshold:0.8}")
+    private double crossBlockNameThreshold;
+    
+    // Nearest neighbours taken from the HNSW index on top of the token-index candidates
+    @Value("${matching.hnsw.candidates:50}")
+    private int hnswCandidates;
+    
     private static final double NAME_SIM_THRESHOLD = 0.3;  // Lowered from 0.5 to 0.3 for more flexibility
     private static final double TEXT_SIM_THRESHOLD = 0.2;  // Lowered from 0.4 to 0.2
     private static final double BOOST_FACTOR = 0.15;       // Increased from 0.1 to reward matching details
     private static final double NAME_WEIGHT = 0.6;
     private static final double TEXT_WEIGHT = 0.4;
     private static final int AUTO_NOTIFY_THRESHOLD = 60;   // Lowered from 75 to 60 for more matches
+    private static final double SEARCH_DATE_BOOST = 0.1;
     
     // Check for matches when a new lost item is reported
     public int checkMatchesForLostItem(LostItem lostItem) {
         int matchesFound = 0;
-        List<FoundItem> foundItems = foundItemRepository.findAll();
-        List<Map<String, Object>> matches = findMatches(List.of(lostItem), foundItems);
+        List<FoundItem> foundItems = findCandidateFoundItems(lostItem);
+        Map<String, Double> semanticScores = itemEmbeddingScorer.isEnabled()
+                ? itemEmbeddingScorer.scoreFoundItems(lostItem, foundItems.stream().map(FoundItem::getId).toList())
+                : Map.of();
+        List<Map<String, Object>> matches = findMatches(List.of(lostItem), foundItems,
+                (lost, found) -> semanticScores.get(found.getId()));
         
         for (Map<String, Object> match : matches) {
             int confidence = (Integer) match.get("finalScore");
@@ -64,8 +98,12 @@ public class AutoMatchService {
     // Check for matches when a new found item is reported
     public int checkMatchesForFoundItem(FoundItem foundItem) {
         int matchesFound = 0;
-        List<LostItem> lostItems = lostItemRepository.findAll();
-        List<Map<String, Object>> matches = findMatches(lostItems, List.of(foundItem));
+        List<LostItem> lostItems = findCandidateLostItems(foundItem);
+        Map<String, Double> semanticScores = itemEmbeddingScorer.isEnabled()
+                ? itemEmbeddingScorer.scoreLostItems(foundItem, lostItems.stream().map(LostItem::getId).toList())
+                : Map.of();
+        List<Map<String, Object>> matches = findMatches(lostItems, List.of(foundItem),
+                (lost, found) -> semanticScores.get(lost.getId()));
         
         for (Map<String, Object> match : matches) {
             int confidence = (Integer) match.get("finalScore");
@@ -77,29 +115,154 @@ public class AutoMatchService {
         return matchesFound;
     }
     
-    // Core matching algorithm
-    private List<Map<String, Object>> findMatches(List<LostItem> lostItems, List<FoundItem> foundItems) {
+    // Found items best matching a free-text search, best first. Only items sharing a text token
+    // with the query can score above zero, so just those are scored on the cached fingerprints;
+    // a shortlist of twice the limit is loaded and re-ranked with a boost for dates inside the
+    // blocking window. Slots the overlapping items leave empty go to the nearest items in
+    // embedding space (when a model is loaded), then to the most recent reports.
+    public List<FoundItem> rankFoundItemsForSearch(String description, String location, LocalDate date, int limit) {
+        if (limit <= 0) return List.of();
+        ItemFingerprint query = ItemFingerprint.query(description, location);
+        
+        // Min-heap keeps the best shortlistSize scores seen so far
+        int shortlistSize = limit * 2;
+        PriorityQueue<Map.Entry<String, Double>> best = new PriorityQueue<>(Map.Entry.comparingByValue());
+        if (itemTokenIndex.isReady()) {
+            for (String id : itemTokenIndex.findFoundTextCandidates(query)) {
+                ItemFingerprint fingerprint = itemTokenIndex.foundFingerprint(id);
+                if (fingerprint != null) offer(best, shortlistSize, id, searchScore(query, fingerprint));
+            }
+        } else {
+            for (FoundItem item : foundItemRepository.findAll()) {
+                offer(best, shortlistSize, item.getId(), searchScore(query, itemTokenIndex.fingerprint(item)));
+            }
+        }
+        
+        Map<String, Double> textScores = new HashMap<>();
+        best.forEach(entry -> textScores.put(entry.getKey(), entry.getValue()));
+        
+        Map<String, Double> finalScores = new HashMap<>();
+        List<FoundItem> ranked = textScores.isEmpty() ? new ArrayList<>()
+                : new ArrayList<>(foundItemRepository.findAllById(textScores.keySet()));
+        for (FoundItem item : ranked) {
+            double score = textScores.get(item.getId());
+            if (date != null && item.getDateFound() != null && withinDateWindow(date, item.getDateFound())) {
+                score += SEARCH_DATE_BOOST;
+            }
+            finalScores.put(item.getId(), score);
+        }
+        ranked.sort(Comparator.comparingDouble((FoundItem item) -> finalScores.get(item.getId())).reversed());
+        if (ranked.size() >= limit) return ranked.subList(0, limit);
+        
+        fillSearchResults(ranked, description, location, limit);
+        return ranked;
+    }
+    
+    private static void offer(PriorityQueue<Map.Entry<String, Double>> best, int size, String id, double score) {
+        if (score <= 0) return;
+        if (best.size() < size) {
+            best.add(Map.entry(id, score));
+        } else if (score > best.peek().getValue()) {
+            best.poll();
+            best.add(Map.entry(id, score));
+        }
+    }
+    
+    // Tops the results up to the limit with the found items nearest to the query text in
+    // embedding space, then the most recently reported ones, skipping items already listed
+    private void fillSearchResults(List<FoundItem> results, String description, String location, int limit) {
+        Set<String> listed = new HashSet<>();
+        results.forEach(item -> listed.add(item.getId()));
+        
+        if (itemEmbeddingScorer.isEnabled()) {
+            LostItem probe = new LostItem();
+            probe.setItemName(description);
+            probe.setItemDescription(description);
+            probe.setLocation(location);
+            List<String> nearest = itemEmbeddingScorer.nearestFoundItems(probe, limit + listed.size()).stream()
+                    .filter(id -> !listed.contains(id))
+                    .limit(limit - results.size())
+                    .toList();
+            if (!nearest.isEmpty()) {
+                Map<String, FoundItem> byId = new HashMap<>();
+                foundItemRepository.findAllById(nearest).forEach(item -> byId.put(item.getId(), item));
+                for (String id : nearest) {
+                    FoundItem item = byId.get(id);
+                    if (item != null && listed.add(id)) results.add(item);
+                }
+            }
+        }
+        
+        if (results.size() < limit) {
+            // Over-fetch by the listed items so skipping them still leaves enough
+            Pageable newest = PageRequest.of(0, limit - results.size() + listed.size(),
+                    Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id")));
+            for (FoundItem item : foundItemRepository.findAll(newest)) {
+                if (results.size() >= limit) break;
+                if (listed.add(item.getId())) results.add(item);
+            }
+        }
+    }
+    
+    // Same name/text Jaccard weighting as pair scoring; the query text stands in for the name
+    private double searchScore(ItemFingerprint query, ItemFingerprint found) {
+        double nameScore = ItemFingerprint.jaccard(query.getNameTokens(), found.getNameTokens());
+        double textScore = ItemFingerprint.jaccard(query.getTextTokens(), found.getTextTokens());
+        return nameScore * NAME_WEIGHT + textScore * TEXT_WEIGHT;
+    }
+    
+    // Only found items sharing a name token or the category, or close in embedding space,
+    // can pass the score gate
+    private List<FoundItem> findCandidateFoundItems(LostItem lostItem) {
+        if (!itemTokenIndex.isReady()) {
+            return foundItemRepository.findAll();
+        }
+        Set<String> ids = new HashSet<>(itemTokenIndex.findFoundCandidates(lostItem));
+        ids.addAll(itemEmbeddingScorer.nearestFoundItems(lostItem, hnswCandidates));
+        return ids.isEmpty() ? List.of() : foundItemRepository.findAllById(ids);
+    }
+    
+    // Only lost items sharing a name token or the category, or close in embedding space,
+    // can pass the score gate
+    private List<LostItem> findCandidateLostItems(FoundItem foundItem) {
+        if (!itemTokenIndex.isReady()) {
+            return lostItemRepository.findAll();
+        }
+        Set<String> ids = new HashSet<>(itemTokenIndex.findLostCandidates(foundItem));
+        ids.addAll(itemEmbeddingScorer.nearestLostItems(foundItem, hnswCandidates));
+        return ids.isEmpty() ? List.of() : lostItemRepository.findAllById(ids);
+    }
+    
+    // Core matching algorithm. semanticScore returns the embedding similarity of a pair,
+    // or null when there is none, in which case the text score is pure Jaccard.
+    private List<Map<String, Object>> findMatches(List<LostItem> lostItems, List<FoundItem> foundItems,
+                                                  BiFunction<LostItem, FoundItem, Double> semanticScore) {
         List<Map<String, Object>> results = new ArrayList<>();
         
         for (LostItem lost : lostItems) {
-            String lostName = lost.getItemName() != null ? lost.getItemName().toLowerCase() : "";
-            String lostText = buildTextDescription(lost).toLowerCase();
-            List<String> boostWords = extractWords(lost.getIdentificationMark());
+            ItemFingerprint lostPrint = itemTokenIndex.fingerprint(lost);
             
             for (FoundItem found : foundItems) {
-                String foundName = found.getItemName() != null ? found.getItemName().toLowerCase() : "";
-                String foundText = buildTextDescription(found).toLowerCase();
+                ItemFingerprint foundPrint = itemTokenIndex.fingerprint(found);
                 
                 // First check: Category match (optional but boosts score)
-                boolean categoryMatch = false;
-                if (lost.getItemCategory() != null && found.getCategory() != null) {
-                    categoryMatch = lost.getItemCategory().equalsIgnoreCase(found.getCategory());
-                }
+                boolean categoryMatch = lostPrint.sameCategory(foundPrint);
+                boolean missingCategory = lostPrint.getCategory() == null || foundPrint.getCategory() == null;
+                boolean inWindow = withinDateWindow(lost.getDateLost(), found.getDateFound());
                 
-                double nameScore = calculateSimilarity(lostName, foundName);
-                if (nameScore < NAME_SIM_THRESHOLD && !categoryMatch) continue; // Skip if name too different and no category match
+                double nameScore = ItemFingerprint.jaccard(lostPrint.getNameTokens(), foundPrint.getNameTokens());
+                boolean sameBlock = inWindow && (categoryMatch || (missingCategory && nameScore >= NAME_SIM_THRESHOLD));
+                Double semantic = semanticScore.apply(lost, found);
+                boolean semanticMatch = semantic != null && semantic >= embeddingGate;
+                // Cross-block pairs are only scored on a near-identical name or a strong embedding match
+                if (!sameBlock && nameScore < crossBlockNameThreshold && !semanticMatch) continue;
                 
-                double textScore = calculateSimilarity(lostText, foundText);
+                double textScore = ItemFingerprint.jaccard(lostPrint.getTextTokens(), foundPrint.getTextTokens());
+                
+                // Blend in embedding similarity so paraphrased descriptions still score
+                if (semantic != null) {
+                    textScore = (1 - embeddingWeight) * textScore + embeddingWeight * Math.max(0.0, semantic);
+                }
                 
                 // Boost score for matching category
                 if (categoryMatch) {
@@ -108,12 +271,10 @@ public class AutoMatchService {
                 }
                 
                 // Boost score for matching identification marks
-                List<String> matches = boostWords.stream()
-                        .filter(foundText::contains)
-                        .collect(Collectors.toList());
+                int boostMatches = lostPrint.countBoostWordsIn(foundPrint);
                 
-                if (!matches.isEmpty()) {
-                    textScore += BOOST_FACTOR * matches.size();
+                if (boostMatches > 0) {
+                    textScore += BOOST_FACTOR * boostMatches;
                     textScore = Math.min(textScore, 1.0);
                 }
                 
@@ -136,23 +297,23 @@ public class AutoMatchService {
         return results;
     }
     
+    // Missing dates never exclude a pair
+    private boolean withinDateWindow(LocalDate dateLost, LocalDate dateFound) {
+        if (dateLost == null || dateFound == null) return true;
+        return Math.abs(ChronoUnit.DAYS.between(dateLost, dateFound)) <= dateWindowDays;
+    }
+    
     // Create match record and send email notifications
     private void createMatchAndNotify(LostItem lostItem, FoundItem foundItem, int confidence) {
-        // Check if match already exists
-        Optional<Match> existingMatch = matchRepository
-                .findByLostItemIdAndFoundItemId(lostItem.getId(), foundItem.getId());
-        
-        if (existingMatch.isPresent()) {
-            return; // Skip if already matched
-        }
-        
-        // Create match record
+        // Create match record unless this pair is already matched (one atomic upsert)
         Match match = new Match();
         match.setLostItemId(lostItem.getId());
         match.setFoundItemId(foundItem.getId());
         match.setStatus("pending");
         match.setConfidenceScore(confidence);
-        matchRepository.save(match);
+        if (matchRepository.insertIfAbsent(match).isEmpty()) {
+            return; // Skip if already matched
+        }
         
         // Create notifications for both users
         createMatchNotification(lostItem, foundItem, confidence, "lost", match.getId());
@@ -198,23 +359,19 @@ public class AutoMatchService {
                 ));
             }
             
-            notificationRepository.save(notification);
+            notificationService.send(notification);
         } catch (Exception e) {
             System.err.println("Failed to create notification: " + e.getMessage());
         }
     }
     
-    // Send email notification to user about match
+    // Queue email notification to user about match
     private void sendMatchNotification(LostItem lostItem, FoundItem foundItem, int confidence, String userType) {
-        if (mailSender == null) return;
-        
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            
             if ("lost".equals(userType)) {
-                message.setTo(lostItem.getUserEmail());
-                message.setSubject("🎉 Great News! We Found a Match for Your Lost Item");
-                message.setText(String.format(
+                emailOutboxService.enqueue(lostItem.getUserEmail(),
+                    "🎉 Great News! We Found a Match for Your Lost Item",
+                    String.format(
                     "Hi %s,\n\n" +
                     "Good news! We found a potential match for your lost item:\n\n" +
                     "Your Lost Item: %s\n" +
@@ -240,9 +397,9 @@ public class AutoMatchService {
                     frontendUrl
                 ));
             } else {
-                message.setTo(foundItem.getUserEmail());
-                message.setSubject("✅ Your Found Item Matches Someone's Lost Item!");
-                message.setText(String.format(
+                emailOutboxService.enqueue(foundItem.getUserEmail(),
+                    "✅ Your Found Item Matches Someone's Lost Item!",
+                    String.format(
                     "Hi %s,\n\n" +
                     "Great news! The item you found matches someone's lost item:\n\n" +
                     "Your Found Item: %s\n" +
@@ -267,73 +424,8 @@ public class AutoMatchService {
                     frontendUrl
                 ));
             }
-            
-            mailSender.send(message);
         } catch (Exception e) {
-            System.err.println("Failed to send email: " + e.getMessage());
+            System.err.println("Failed to queue email: " + e.getMessage());
         }
     }
-    
-    // Public method to send emails from other services/controllers
-    public void sendSimpleEmail(String to, String subject, String body) {
-        try {
-            if (mailSender == null) {
-                System.err.println("Mail sender not configured");
-                return;
-            }
-            
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(System.getenv("EMAIL_USERNAME"));
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(body);
-            mailSender.send(message);
-        } catch (Exception e) {
-            System.err.println("Failed to send email: " + e.getMessage());
-        }
-    }
-    
-    // Build text description from item fields
-    private String buildTextDescription(LostItem item) {
-        StringBuilder sb = new StringBuilder();
-        if (item.getItemName() != null) sb.append(item.getItemName()).append(" ");
-        if (item.getItemDescription() != null) sb.append(item.getItemDescription()).append(" ");
-        if (item.getLocation() != null) sb.append(item.getLocation()).append(" ");
-        if (item.getItemCategory() != null) sb.append(item.getItemCategory()).append(" ");
-        return sb.toString();
-    }
-    
-    // Build text description from found item fields
-    private String buildTextDescription(FoundItem item) {
-        StringBuilder sb = new StringBuilder();
-        if (item.getItemName() != null) sb.append(item.getItemName()).append(" ");
-        if (item.getItemDescription() != null) sb.append(item.getItemDescription()).append(" ");
-        if (item.getPlaceFound() != null) sb.append(item.getPlaceFound()).append(" ");
-        if (item.getCategory() != null) sb.append(item.getCategory()).append(" ");
-        return sb.toString();
-    }
-    
-    // Extract words from identification mark
-    private List<String> extractWords(String text) {
-        if (text == null || text.isEmpty()) return List.of();
-        return Arrays.stream(text.toLowerCase().split("\\W+"))
-                .filter(w -> w.length() > 2)
-                .collect(Collectors.toList());
-    }
-    
-    // Calculate similarity between two strings using Jaccard index
-    private double calculateSimilarity(String a, String b) {
-        if (a == null || b == null || a.isEmpty() || b.isEmpty()) return 0.0;
-        
-        Set<String> setA = new HashSet<>(Arrays.asList(a.split("\\s+")));
-        Set<String> setB = new HashSet<>(Arrays.asList(b.split("\\s+")));
-        
-        Set<String> intersection = new HashSet<>(setA);
-        intersection.retainAll(setB);
-        
-        Set<String> union = new HashSet<>(setA);
-        union.addAll(setB);
-        
-        return union.isEmpty() ? 0.0 : (double) intersection.size() / union.size();
-    }
 }
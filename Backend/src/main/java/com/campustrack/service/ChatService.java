@@ -0,0 +1,282 @@
+package com.campustrack.service;
+
+import com.campustrack.model.*;
+import com.campustrack.repository.FoundItemRepository;
+import com.campustrack.repository.LostItemRepository;
+import com.campustrack.repository.MatchRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.websocket.Session;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Live chat for match conversations. Participants are resolved once per WebSocket session,
+// new messages are queued and written to Mongo in batches by a scheduled flush, then pushed
+// to every open session of the match. A message is only pushed once it is stored, with the
+// createdAt it was stored under, so paging with cursor/afterId never skips a message a client
+// has already seen. Messages stored while the receiver has the conversation open are marked
+// read and raise no notification. The write queue is bounded: while it is full (Mongo down or
+// too slow) new frames are refused with an error frame, and a message that keeps failing to
+// store is dropped after chat.max-write-attempts flushes and handed back to its sender.
+@Service
+public class ChatService {
+
+    public static final String PARTICIPANTS_PROPERTY = "participants";
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private LostItemRepository lostItemRepository;
+
+    @Autowired
+    private FoundItemRepository foundItemRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+
+    @Value("${chat.flush-batch-size:100}")
+    private int flushBatchSize;
+
+    @Value("${chat.max-pending-writes:10000}")
+    private int maxPendingWrites;
+
+    @Value("${chat.max-write-attempts:5}")
+    private int maxWriteAttempts;
+
+    private final Map<String, Set<Session>> sessionsByMatch = new ConcurrentHashMap<>();
+    private final Queue<PendingWrite> pendingWrites = new ConcurrentLinkedQueue<>();
+    // Slots taken in pendingWrites, including batches being flushed; released once stored or dropped
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    // The connected user and the other side of the conversation
+    public record Participants(String matchId, String email, String name, String otherEmail, String otherName) {}
+
+    private record PendingWrite(Message message, Session sender, int attempts) {}
+
+    // Register the session for the match; null when the match does not exist or the user is not part of it
+    public Participants join(String matchId, User user, Session session) {
+        Participants participants = resolveParticipants(matchId, user);
+        if (participants == null) return null;
+
+        session.getUserProperties().put(PARTICIPANTS_PROPERTY, participants);
+        sessionsByMatch.compute(matchId, (id, sessions) -> {
+            Set<Session> result = sessions != null ? sessions : new CopyOnWriteArraySet<>();
+            result.add(session);
+            return result;
+        });
+        return participants;
+    }
+
+    public void leave(String matchId, Session session) {
+        sessionsByMatch.computeIfPresent(matchId, (id, sessions) -> {
+            sessions.remove(session);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    // Handle a {"message": "..."} frame from a connected participant
+    public void receive(Participants participants, Session session, String payload) {
+        String text;
+        try {
+            JsonNode node = objectMapper.readTree(payload);
+            text = node.path("message").asText("").trim();
+        } catch (IOException e) {
+            return; // Ignore malformed frames
+        }
+        if (text.isEmpty()) return;
+
+        if (pendingCount.incrementAndGet() > maxPendingWrites) {
+            pendingCount.decrementAndGet();
+            reject(session, "Chat is busy, message not sent", text);
+            return;
+        }
+
+        Message message = new Message(participants.matchId(), participants.email(), participants.name(),
+                participants.otherEmail(), participants.otherName(), text);
+        pendingWrites.add(new PendingWrite(message, session, 0));
+    }
+
+    // Tell the sender the message was not taken; the client keeps the text to resend
+    private void reject(Session session, String error, String text) {
+        try {
+            String json = objectMapper.writeValueAsString(Map.of(
+                    "error", error,
+                    "rejectedMessage", text));
+            synchronized (session) {
+                if (session.isOpen()) session.getBasicRemote().sendText(json);
+            }
+        } catch (IOException e) {
+            // Sender disconnected
+        }
+    }
+
+    // Push a stored message to every open session of its match
+    public void broadcast(Message message) {
+        Set<Session> sessions = sessionsByMatch.get(message.getMatchId());
+        if (sessions == null || sessions.isEmpty()) return;
+
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(message);
+        } catch (IOException e) {
+            System.err.println("Failed to serialize chat message: " + e.getMessage());
+            return;
+        }
+        for (Session session : sessions) {
+            // Basic remotes allow one writer at a time
+            synchronized (session) {
+                try {
+                    if (session.isOpen()) session.getBasicRemote().sendText(json);
+                } catch (IOException e) {
+                    leave(message.getMatchId(), session);
+                }
+            }
+        }
+    }
+
+    // Count the message as unread for the receiver and notify them
+    public void notifyReceiver(Message message) {
+        unreadCounterService.messageCreated(message.getReceiverEmail());
+        try {
+            Notification notification = new Notification();
+            notification.setUserEmail(message.getReceiverEmail());
+            notification.setTitle("💬 New Message from " + message.getSenderName());
+            notification.setMessage(message.getMessage().length() > 50 ?
+                message.getMessage().substring(0, 50) + "..." : message.getMessage());
+            notification.setData(Map.of(
+                "matchId", message.getMatchId(),
+                "type", "new_message",
+                "senderName", message.getSenderName(),
+                "senderEmail", message.getSenderEmail()
+            ));
+            notificationService.send(notification);
+        } catch (Exception e) {
+            System.err.println("Failed to create message notification: " + e.getMessage());
+        }
+    }
+
+    // Write pending messages with one bulk insert per batch, then push the stored ones
+    @Scheduled(fixedDelayString = "${chat.flush-interval-ms:200}")
+    public void flush() {
+        List<PendingWrite> batch = new ArrayList<>();
+        PendingWrite next;
+        while (batch.size() < flushBatchSize && (next = pendingWrites.poll()) != null) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) return;
+
+        for (Message message : persist(batch)) {
+            broadcast(message);
+            if (!message.isRead()) notifyReceiver(message);
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        int remaining = pendingWrites.size();
+        while (remaining > 0) {
+            flush();
+            int left = pendingWrites.size();
+            if (left >= remaining) break; // No progress; Mongo is unavailable
+            remaining = left;
+        }
+    }
+
+    // Messages actually stored; ones that still fail are queued again for the next flush
+    // until they run out of attempts. createdAt is stamped at write time (flushes run one at a
+    // time), so a stored message never sorts before one a reader has already paged past.
+    private List<Message> persist(List<PendingWrite> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Message> messages = batch.stream().map(PendingWrite::message).toList();
+        for (Message message : messages) {
+            if (message.getId() == null) message.setId(new ObjectId().toHexString());
+            message.setCreatedAt(now);
+            message.setRead(isConnected(message.getMatchId(), message.getReceiverEmail()));
+        }
+        try {
+            mongoTemplate.insert(messages, Message.class);
+            pendingCount.addAndGet(-batch.size());
+            return messages;
+        } catch (Exception e) {
+            // Part of the batch may already be stored: fall back to per-message saves, which
+            // replace by id and so never duplicate
+            List<Message> saved = new ArrayList<>();
+            int dropped = 0;
+            for (PendingWrite write : batch) {
+                try {
+                    mongoTemplate.save(write.message());
+                    saved.add(write.message());
+                    pendingCount.decrementAndGet();
+                } catch (Exception saveError) {
+                    if (write.attempts() + 1 < maxWriteAttempts) {
+                        pendingWrites.add(new PendingWrite(write.message(), write.sender(), write.attempts() + 1));
+                    } else {
+                        pendingCount.decrementAndGet();
+                        dropped++;
+                        reject(write.sender(), "Message could not be saved", write.message().getMessage());
+                    }
+                }
+            }
+            if (saved.size() < batch.size()) {
+                System.err.println("Failed to store " + (batch.size() - saved.size()) + " chat messages ("
+                        + dropped + " dropped after " + maxWriteAttempts + " attempts): " + e.getMessage());
+            }
+            return saved;
+        }
+    }
+
+    // Whether the user has the match conversation open on any session
+    public boolean isConnected(String matchId, String email) {
+        Set<Session> sessions = sessionsByMatch.get(matchId);
+        if (sessions == null) return false;
+        for (Session session : sessions) {
+            Object participants = session.getUserProperties().get(PARTICIPANTS_PROPERTY);
+            if (participants instanceof Participants p && p.email().equals(email) && session.isOpen()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Participants resolveParticipants(String matchId, User user) {
+        Optional<Match> match = matchRepository.findById(matchId);
+        if (match.isEmpty()) return null;
+
+        Optional<LostItem> lostItem = lostItemRepository.findById(match.get().getLostItemId());
+        Optional<FoundItem> foundItem = foundItemRepository.findById(match.get().getFoundItemId());
+        if (lostItem.isEmpty() || foundItem.isEmpty()) return null;
+
+        if (user.getEmail().equals(lostItem.get().getUserEmail())) {
+            return new Participants(matchId, user.getEmail(), user.getFullName(),
+                    foundItem.get().getUserEmail(), foundItem.get().getUserName());
+        }
+        if (user.getEmail().equals(foundItem.get().getUserEmail())) {
+            return new Participants(matchId, user.getEmail(), user.getFullName(),
+                    lostItem.get().getUserEmail(), lostItem.get().getUserName());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,181 @@
+package com.campustrack.service;
+
+import com.campustrack.model.OutboxEmail;
+import com.campustrack.repository.OutboxEmailRepository;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+// Mongo-backed email outbox. Request threads only insert a document; a scheduled dispatcher
+// claims due emails under a lease, sends them in batches over a single SMTP connection,
+// capped per minute, and retries failures with exponential backoff. Claiming makes it safe
+// to run several app instances; an instance that dies mid-batch leaves its emails to be
+// reclaimed when the lease expires, so delivery is at-least-once.
+@Service
+public class EmailOutboxService {
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    @Autowired(required = false)
+    private JavaMailSender mailSender;
+
+    @Value("${spring.mail.username:}")
+    private String defaultFrom;
+
+    @Value("${mail.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${mail.outbox.max-per-minute:60}")
+    private int maxPerMinute;
+
+    @Value("${mail.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.initial-backoff-ms:30000}")
+    private long initialBackoffMs;
+
+    @Value("${mail.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    // How long a claimed batch is reserved for this instance before others may take it over
+    @Value("${mail.outbox.lease-ms:300000}")
+    private long leaseMs;
+
+    private Instant windowStart = Instant.EPOCH;
+    private int sentInWindow;
+
+    // Queue a plain-text email from the default sender
+    public void enqueue(String to, String subject, String text) {
+        enqueue(null, to, null, subject, text, false);
+    }
+
+    // Queue an HTML email from the given sender
+    public void enqueueHtml(String from, String to, String subject, String html) {
+        enqueue(from, to, null, subject, html, true);
+    }
+
+    // Queue an email; a null from falls back to spring.mail.username
+    public void enqueue(String from, String to, String replyTo, String subject, String body, boolean html) {
+        if (to == null || to.isBlank()) return;
+
+        OutboxEmail email = new OutboxEmail();
+        email.setFrom(from != null ? from : defaultFrom);
+        email.setTo(to);
+        email.setReplyTo(replyTo);
+        email.setSubject(subject);
+        email.setBody(body);
+        email.setHtml(html);
+        email.setNextAttemptAt(Instant.now());
+        outboxEmailRepository.save(email);
+    }
+
+    // Send the next due batch over one SMTP connection
+    @Scheduled(fixedDelayString = "${mail.outbox.interval-ms:5000}")
+    public void dispatch() {
+        if (mailSender == null) return;
+
+        int limit = Math.min(batchSize, remainingInWindow());
+        if (limit <= 0) return;
+
+        Instant claimedAt = Instant.now();
+        List<OutboxEmail> due = outboxEmailRepository.claimDue(claimedAt,
+                claimedAt.plus(Duration.ofMillis(leaseMs)), UUID.randomUUID().toString(), limit);
+        if (due.isEmpty()) return;
+
+        // In claim order (oldest due first); MimeMessage keeps identity equality
+        Map<MimeMessage, OutboxEmail> messages = new LinkedHashMap<>();
+        for (OutboxEmail email : due) {
+            try {
+                messages.put(toMimeMessage(email), email);
+            } catch (Exception e) {
+                markFailed(email, e);
+            }
+        }
+        if (messages.isEmpty()) return;
+
+        Map<Object, Exception> failures = Map.of();
+        try {
+            // JavaMailSenderImpl sends all messages of one call over a single transport
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                // Connection-level failure: nothing was sent
+                messages.values().forEach(email -> markFailed(email, e));
+                return;
+            }
+        } catch (Exception e) {
+            messages.values().forEach(email -> markFailed(email, e));
+            return;
+        }
+
+        Instant now = Instant.now();
+        for (Map.Entry<MimeMessage, OutboxEmail> entry : messages.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure != null) {
+                markFailed(entry.getValue(), failure);
+            } else {
+                OutboxEmail email = entry.getValue();
+                email.setStatus("sent");
+                email.setSentAt(now);
+                email.setLastError(null);
+                release(email);
+            }
+        }
+        sentInWindow += messages.size();
+    }
+
+    private MimeMessage toMimeMessage(OutboxEmail email) throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+        if (email.getFrom() != null && !email.getFrom().isBlank()) helper.setFrom(email.getFrom());
+        helper.setTo(email.getTo());
+        if (email.getReplyTo() != null) helper.setReplyTo(email.getReplyTo());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody(), email.isHtml());
+        return message;
+    }
+
+    // Retry later with exponential backoff, or give up after maxAttempts
+    private void markFailed(OutboxEmail email, Exception error) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        email.setLastError(error.getMessage());
+
+        if (attempts >= maxAttempts) {
+            email.setStatus("failed");
+            System.err.println("Giving up on email to " + email.getTo() + ": " + error.getMessage());
+        } else {
+            long backoff = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempts - 1, 20));
+            email.setStatus("pending");
+            email.setNextAttemptAt(Instant.now().plus(Duration.ofMillis(backoff)));
+        }
+        release(email);
+    }
+
+    private void release(OutboxEmail email) {
+        if (!outboxEmailRepository.complete(email)) {
+            System.err.println("Outbox lease on email " + email.getId() + " expired before its result was stored");
+        }
+    }
+
+    // Simple fixed one-minute window for the send rate cap
+    private int remainingInWindow() {
+        Instant now = Instant.now();
+        if (Duration.between(windowStart, now).toMinutes() >= 1) {
+            windowStart = now;
+            sentInWindow = 0;
+        }
+        return maxPerMinute - sentInWindow;
+    }
+}
@@ -1,9 +1,11 @@
 package com.campustrack.service;
 
+import com.campustrack.dto.CursorPage;
 import com.campustrack.dto.FoundItemRequest;
 import com.campustrack.model.FoundItem;
 import com.campustrack.model.User;
 import com.campustrack.repository.FoundItemRepository;
+import com.campustrack.repository.KeysetPager;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,11 +22,14 @@ public class FoundItemService {
     @Autowired
     private FoundItemRepository foundItemRepository;
     
+    @Autowired
+    private KeysetPager keysetPager;
+    
     @Autowired
     private Cloudinary cloudinary;
     
     @Autowired
-    private AutoMatchService autoMatchService;
+    private MatchingPipeline matchingPipeline;
     
     // Handle found item submission with image upload to cloud
     public FoundItem reportFoundItem(FoundItemRequest request, MultipartFile imageFile, User user) throws IOException {
@@ -44,21 +49,18 @@ public class FoundItemService {
         foundItem.setUserEmail(user.getEmail());
         foundItem.setImage((String) uploadResult.get("url"));
         
+        foundItem.setMatchingStatus(MatchingPipeline.STATUS_QUEUED);
         FoundItem savedItem = foundItemRepository.save(foundItem);
         
-        // Automatically check for matches with lost items
-        try {
-            autoMatchService.checkMatchesForFoundItem(savedItem);
-        } catch (Exception e) {
-            System.err.println("Auto-match failed: " + e.getMessage());
-        }
+        // Match against lost items in the background; if the queue is full the sweeper picks it up
+        matchingPipeline.submit(savedItem);
         
         return savedItem;
     }
     
-    // Retrieve all found items ordered by date
-    public List<FoundItem> getFoundItems() {
-        return foundItemRepository.findAllByOrderByCreatedAtDesc();
+    // Fetch one page of found items, newest first
+    public CursorPage<FoundItem> getFoundItems(String cursor, int limit) {
+        return keysetPager.page(null, FoundItem.class, cursor, limit, false, FoundItem::getCreatedAt, FoundItem::getId);
     }
     
     // Delete found item entry from database
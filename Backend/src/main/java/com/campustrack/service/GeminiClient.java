@@ -0,0 +1,384 @@
+package com.campustrack.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Calls the Gemini generateContent API through the shared pooled RestTemplate.
+// A semaphore bulkhead caps concurrent in-flight calls and a circuit breaker stops calling
+// the upstream for a while after repeated failures, so a slow or failing Gemini cannot
+// tie up every Tomcat thread.
+@Service
+public class GeminiClient {
+    
+    @Autowired
+    private RestTemplate geminiRestTemplate;
+    
+    @Autowired
+    private HttpClient geminiHttpClient;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${gemini.api.key}")
+    private String apiKey;
+    
+    @Value("${gemini.api.base-url:https://generativelanguage.googleapis.com/v1beta}")
+    private String baseUrl;
+    
+    @Value("${gemini.api.model:gemini-pro}")
+    private String model;
+    
+    @Value("${gemini.http.read-timeout-ms:20000}")
+    private long readTimeoutMs;
+    
+    @Value("${gemini.stream.idle-timeout-ms:15000}")
+    private long streamIdleTimeoutMs;
+    
+    @Value("${gemini.stream.total-timeout-ms:50000}")
+    private long streamTotalTimeoutMs;
+    
+    @Value("${gemini.bulkhead.max-wait-ms:500}")
+    private long bulkheadMaxWaitMs;
+    
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    
+    public GeminiClient(@Value("${gemini.bulkhead.max-concurrent:8}") int maxConcurrent,
+                        @Value("${gemini.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                        @Value("${gemini.circuit-breaker.open-ms:30000}") long openMs) {
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openMs);
+    }
+    
+    // Text of the first candidate for the prompt; throws when the call is rejected or fails
+    public String generateContent(String prompt) {
+        acquire();
+        try {
+            if (!circuitBreaker.allowRequest()) {
+                throw new RuntimeException("AI service temporarily unavailable");
+            }
+            try {
+                String text = extractText(post("generateContent", prompt));
+                circuitBreaker.recordSuccess();
+                return text;
+            } catch (RuntimeException e) {
+                circuitBreaker.recordFailure();
+                throw e;
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+    
+    // Streams the reply through onChunk as Gemini generates it (streamGenerateContent with
+    // alt=sse). The bulkhead permit is held until the stream ends, which is at the latest when
+    // no line arrived for the idle timeout or the total timeout passed. Throws when the call is
+    // rejected, fails or times out; an exception thrown by onChunk, or cancelling the stream
+    // through cancellation, aborts it without counting against the breaker.
+    public void streamGenerateContent(String prompt, Consumer<String> onChunk, Cancellation cancellation) {
+        acquire();
+        try {
+            if (!circuitBreaker.allowRequest()) {
+                throw new RuntimeException("AI service temporarily unavailable");
+            }
+            LineStream lines = new LineStream(System.currentTimeMillis() + streamTotalTimeoutMs);
+            cancellation.onCancel(lines::cancel);
+            try {
+                openStream(prompt, lines);
+                relayChunks(lines, onChunk);
+                circuitBreaker.recordSuccess();
+            } catch (ConsumerException e) {
+                circuitBreaker.recordSuccess();
+                throw e.getCause();
+            } catch (RuntimeException e) {
+                circuitBreaker.recordFailure();
+                throw e;
+            } finally {
+                lines.cancel();
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+    
+    // The request timeout bounds the wait for the response headers; the body lines are then
+    // queued by the HttpClient as they arrive and read with the idle/total deadlines
+    private void openStream(String prompt, LineStream lines) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(url("streamGenerateContent") + "&alt=sse"))
+                    .timeout(Duration.ofMillis(readTimeoutMs))
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(requestBody(prompt))))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        geminiHttpClient.sendAsync(request, lines)
+                .whenComplete((response, error) -> {
+                    if (error != null) lines.fail(error);
+                });
+        
+        int status = lines.awaitStatus(readTimeoutMs);
+        if (status != 200) {
+            throw new RuntimeException("Gemini stream failed with HTTP " + status);
+        }
+    }
+    
+    // Each SSE "data:" line is one GenerateContentResponse carrying the next piece of text
+    @SuppressWarnings("unchecked")
+    private void relayChunks(LineStream lines, Consumer<String> onChunk) {
+        try {
+            String line;
+            while ((line = lines.next(streamIdleTimeoutMs)) != null) {
+                if (!line.startsWith("data:")) continue;
+                
+                String text = extractText(objectMapper.readValue(line.substring(5).trim(), Map.class));
+                if (text == null || text.isEmpty()) continue;
+                try {
+                    onChunk.accept(text);
+                } catch (RuntimeException e) {
+                    throw new ConsumerException(e);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private void acquire() {
+        try {
+            if (!bulkhead.tryAcquire(bulkheadMaxWaitMs, TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("Too many concurrent AI requests");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for AI service");
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> post(String method, String prompt) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody(prompt), headers);
+        
+        return geminiRestTemplate.postForObject(url(method), entity, Map.class);
+    }
+    
+    private String url(String method) {
+        return baseUrl + "/models/" + model + ":" + method + "?key=" + apiKey;
+    }
+    
+    private Map<String, Object> requestBody(String prompt) {
+        return Map.of("contents", List.of(Map.of("parts", List.of(Map.of("text", prompt)))));
+    }
+    
+    // candidates[0].content.parts[0].text, or null when the response has none
+    @SuppressWarnings("unchecked")
+    static String extractText(Map<String, Object> response) {
+        if (response == null || !response.containsKey("candidates")) return null;
+        
+        List<Map<String, Object>> candidates = (List<Map<String, Object>>) response.get("candidates");
+        if (candidates == null || candidates.isEmpty()) return null;
+        
+        Map<String, Object> content = (Map<String, Object>) candidates.get(0).get("content");
+        if (content == null) return null;
+        
+        List<Map<String, Object>> parts = (List<Map<String, Object>>) content.get("parts");
+        if (parts == null || parts.isEmpty()) return null;
+        
+        return (String) parts.get(0).get("text");
+    }
+    
+    // Lets the caller stop a stream from another thread, e.g. when the browser went away;
+    // cancelling before the stream is opened stops it as soon as it starts
+    public static class Cancellation {
+        private Runnable action;
+        private boolean cancelled;
+        
+        public void cancel() {
+            Runnable toRun;
+            synchronized (this) {
+                cancelled = true;
+                toRun = action;
+            }
+            if (toRun != null) toRun.run();
+        }
+        
+        void onCancel(Runnable action) {
+            synchronized (this) {
+                this.action = action;
+                if (!cancelled) return;
+            }
+            action.run();
+        }
+    }
+    
+    // Body of a streamed response, line by line. The HttpClient's threads queue the status and
+    // each line; the reading thread waits on the queue, never on the socket, so a deadline or a
+    // cancel always wakes it. Lines are requested one at a time as they are consumed.
+    private static class LineStream implements HttpResponse.BodyHandler<Void>, Flow.Subscriber<String> {
+        private static final Object END = new Object();
+        private static final Object CANCELLED = new Object();
+        
+        private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+        private final long deadline;
+        private volatile Flow.Subscription subscription;
+        private volatile boolean cancelled;
+        
+        LineStream(long deadline) {
+            this.deadline = deadline;
+        }
+        
+        @Override
+        public HttpResponse.BodySubscriber<Void> apply(HttpResponse.ResponseInfo responseInfo) {
+            queue.add(responseInfo.statusCode());
+            return HttpResponse.BodySubscribers.fromLineSubscriber(this);
+        }
+        
+        int awaitStatus(long timeoutMs) {
+            Object head = take(timeoutMs, "Gemini stream did not respond");
+            if (head instanceof Integer status) return status;
+            throw new RuntimeException("Gemini stream ended before its response headers");
+        }
+        
+        // Next line, or null at the end of the body
+        String next(long idleTimeoutMs) {
+            Object item = take(idleTimeoutMs, "Gemini stream stalled");
+            if (item == END) return null;
+            if (subscription != null) subscription.request(1);
+            return (String) item;
+        }
+        
+        private Object take(long timeoutMs, String stalledMessage) {
+            long wait = Math.min(timeoutMs, deadline - System.currentTimeMillis());
+            Object item;
+            try {
+                item = wait > 0 ? queue.poll(wait, TimeUnit.MILLISECONDS) : queue.poll();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while reading AI stream");
+            }
+            if (item == null) {
+                throw new RuntimeException(System.currentTimeMillis() >= deadline
+                        ? "Gemini stream exceeded its total time" : stalledMessage);
+            }
+            if (item == CANCELLED) {
+                throw new ConsumerException(new RuntimeException("AI stream cancelled"));
+            }
+            if (item instanceof Throwable error) {
+                throw new RuntimeException("Gemini stream failed: " + error.getMessage(), error);
+            }
+            return item;
+        }
+        
+        // Stops the body and wakes a waiting reader; harmless once the stream has ended
+        void cancel() {
+            if (cancelled) return;
+            cancelled = true;
+            Flow.Subscription current = subscription;
+            if (current != null) current.cancel();
+            queue.add(CANCELLED);
+        }
+        
+        void fail(Throwable error) {
+            queue.add(error);
+        }
+        
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (cancelled) {
+                subscription.cancel();
+            } else {
+                subscription.request(1);
+            }
+        }
+        
+        @Override
+        public void onNext(String line) {
+            queue.add(line);
+        }
+        
+        @Override
+        public void onError(Throwable error) {
+            queue.add(error);
+        }
+        
+        @Override
+        public void onComplete() {
+            queue.add(END);
+        }
+    }
+    
+    // Marks a failure of the chunk consumer (e.g. the browser went away), not of Gemini
+    private static class ConsumerException extends RuntimeException {
+        ConsumerException(RuntimeException cause) {
+            super(cause);
+        }
+        
+        @Override
+        public synchronized RuntimeException getCause() {
+            return (RuntimeException) super.getCause();
+        }
+    }
+    
+    // Minimal closed/open/half-open breaker: opens after failureThreshold consecutive failures,
+    // lets one trial request through after openMs, and closes again on its success
+    private static class CircuitBreaker {
+        private final int failureThreshold;
+        private final long openMs;
+        private int consecutiveFailures;
+        private long openedAt = -1;
+        private boolean trialInFlight;
+        
+        CircuitBreaker(int failureThreshold, long openMs) {
+            this.failureThreshold = failureThreshold;
+            this.openMs = openMs;
+        }
+        
+        synchronized boolean allowRequest() {
+            if (openedAt < 0) return true;
+            if (System.currentTimeMillis() - openedAt < openMs || trialInFlight) return false;
+            trialInFlight = true; // Half-open: one trial request
+            return true;
+        }
+        
+        synchronized void recordSuccess() {
+            consecutiveFailures = 0;
+            openedAt = -1;
+            trialInFlight = false;
+        }
+        
+        synchronized void recordFailure() {
+            consecutiveFailures++;
+            if (trialInFlight || consecutiveFailures >= failureThreshold) {
+                openedAt = System.currentTimeMillis();
+            }
+            trialInFlight = false;
+        }
+    }
+}
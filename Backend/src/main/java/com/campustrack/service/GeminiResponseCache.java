@@ -0,0 +1,100 @@
+package com.campustrack.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Content-addressed cache of Gemini replies. The key is a SHA-256 of the prompt plus the
+// found-item snapshot version, so search prompts built from found items stop matching as
+// soon as a found item is saved or deleted. Bounded LRU with a TTL per entry.
+@Component
+public class GeminiResponseCache {
+
+    @Value("${gemini.cache.max-entries:1000}")
+    private int maxEntries;
+
+    @Value("${gemini.cache.ttl-ms:3600000}")
+    private long ttlMs;
+
+    private final AtomicLong foundItemsVersion = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    // Cached reply for the prompt, or the loader's result (cached only when non-null).
+    // Loader exceptions propagate and are never cached.
+    public String get(String prompt, long snapshotVersion, Supplier<String> loader) {
+        String cached = getIfPresent(prompt, snapshotVersion);
+        if (cached != null) return cached;
+
+        String value = loader.get();
+        if (value != null) put(prompt, snapshotVersion, value);
+        return value;
+    }
+
+    // Cached reply for the prompt, or null; counts as a hit or a miss
+    public String getIfPresent(String prompt, long snapshotVersion) {
+        String key = key(prompt, snapshotVersion);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+                hits.incrementAndGet();
+                return entry.value;
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(String prompt, long snapshotVersion, String value) {
+        String key = key(prompt, snapshotVersion);
+        synchronized (entries) {
+            entries.put(key, new Entry(value, System.currentTimeMillis() + ttlMs));
+        }
+    }
+
+    // Version of the found-item collection; bumped on every found item save or delete
+    public long foundItemsVersion() {
+        return foundItemsVersion.get();
+    }
+
+    public void foundItemsChanged() {
+        foundItemsVersion.incrementAndGet();
+    }
+
+    public Map<String, Object> stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return Map.of("hits", hits.get(), "misses", misses.get(), "size", size);
+    }
+
+    private static String key(String prompt, long snapshotVersion) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(Long.toString(snapshotVersion).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(prompt.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(String value, long expiresAt) {}
+}
@@ -0,0 +1,122 @@
+package com.campustrack.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Relays Gemini replies to the browser as Server-Sent Events. Each stream runs on a small
+// bounded pool so the Tomcat request thread is released as soon as the emitter is returned.
+// Events: "chunk" for each piece of text, "done" at the end, "error" with a fallback message.
+@Service
+public class GeminiStreamService {
+
+    @Autowired
+    private GeminiClient geminiClient;
+
+    @Autowired
+    private GeminiResponseCache geminiResponseCache;
+
+    @Value("${gemini.stream.workers:8}")
+    private int workers;
+
+    @Value("${gemini.stream.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${gemini.stream.timeout-ms:60000}")
+    private long timeoutMs;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "gemini-stream-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    // Start streaming the reply to prompt; a cached reply is sent as a single chunk.
+    // Completed replies are cached under snapshotVersion like non-streamed ones.
+    public SseEmitter stream(String prompt, long snapshotVersion, String fallback) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        // Stop reading from Gemini (and free the relay thread and bulkhead permit) as soon as
+        // the emitter is done, whether it completed, timed out or the browser went away
+        GeminiClient.Cancellation cancellation = new GeminiClient.Cancellation();
+        emitter.onCompletion(cancellation::cancel);
+        emitter.onTimeout(cancellation::cancel);
+        emitter.onError(e -> cancellation.cancel());
+        try {
+            executor.execute(() -> relay(emitter, prompt, snapshotVersion, fallback, cancellation));
+        } catch (RejectedExecutionException e) {
+            sendError(emitter, fallback);
+        }
+        return emitter;
+    }
+
+    private void relay(SseEmitter emitter, String prompt, long snapshotVersion, String fallback,
+                       GeminiClient.Cancellation cancellation) {
+        try {
+            String cached = geminiResponseCache.getIfPresent(prompt, snapshotVersion);
+            if (cached != null) {
+                send(emitter, "chunk", cached);
+            } else {
+                StringBuilder reply = new StringBuilder();
+                geminiClient.streamGenerateContent(prompt, chunk -> {
+                    reply.append(chunk);
+                    send(emitter, "chunk", chunk);
+                }, cancellation);
+                if (reply.length() > 0) {
+                    geminiResponseCache.put(prompt, snapshotVersion, reply.toString());
+                }
+            }
+            send(emitter, "done", "");
+            emitter.complete();
+        } catch (ClientGoneException e) {
+            // Browser disconnected; nothing left to send to
+            emitter.completeWithError(e.getCause());
+        } catch (Exception e) {
+            System.err.println("Gemini stream failed: " + e.getMessage());
+            sendError(emitter, fallback);
+        }
+    }
+
+    private void send(SseEmitter emitter, String event, String data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data));
+        } catch (IOException e) {
+            throw new ClientGoneException(e);
+        }
+    }
+
+    private void sendError(SseEmitter emitter, String message) {
+        try {
+            emitter.send(SseEmitter.event().name("error").data(message));
+            emitter.complete();
+        } catch (Exception e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private static class ClientGoneException extends RuntimeException {
+        ClientGoneException(IOException cause) {
+            super(cause);
+        }
+    }
+}
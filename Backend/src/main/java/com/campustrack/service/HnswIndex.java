@@ -0,0 +1,419 @@
+package com.campustrack.service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-process HNSW (hierarchical navigable small world) graph over unit-length item vectors.
+// Supports insert, delete (tombstones) and approximate top-K cosine search, and can be
+// written to / read from a memory-mapped file so restarts do not rebuild the graph.
+public class HnswIndex {
+
+    private static final int MAGIC = 0x484E5357; // "HNSW"
+    private static final int VERSION = 1;
+
+    private final int dimensions;
+    private final int maxConnections;
+    private final int maxConnectionsLevel0;
+    private final int efConstruction;
+    private final int efSearch;
+    private final double levelMultiplier;
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<String, Integer> nodeByItemId = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+    private long modifications = 0;
+    private long savedModifications = 0;
+
+    public HnswIndex(int dimensions, int maxConnections, int efConstruction, int efSearch) {
+        this.dimensions = dimensions;
+        this.maxConnections = maxConnections;
+        this.maxConnectionsLevel0 = maxConnections * 2;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.levelMultiplier = 1.0 / Math.log(maxConnections);
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodeByItemId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Set<String> itemIds() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(nodeByItemId.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Vector currently stored for the item, or null if it is not indexed
+    public float[] vector(String itemId) {
+        lock.readLock().lock();
+        try {
+            Integer id = nodeByItemId.get(itemId);
+            return id != null ? nodes.get(id).vector : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Add or replace the vector for an item; replacing tombstones the old node
+    public void insert(String itemId, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions, got " + vector.length);
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = nodeByItemId.remove(itemId);
+            if (existing != null) nodes.get(existing).deleted = true;
+
+            int level = randomLevel();
+            int id = nodes.size();
+            nodes.add(new Node(itemId, vector, level, maxConnections, maxConnectionsLevel0));
+            nodeByItemId.put(itemId, id);
+            modifications++;
+
+            if (entryPoint < 0) {
+                entryPoint = id;
+                maxLevel = level;
+                return;
+            }
+
+            int current = entryPoint;
+            for (int l = maxLevel; l > level; l--) {
+                current = greedyClosest(vector, current, l);
+            }
+            for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+                List<Candidate> candidates = searchLayer(vector, current, efConstruction, l);
+                int limit = l == 0 ? maxConnectionsLevel0 : maxConnections;
+                for (int i = 0; i < Math.min(limit, candidates.size()); i++) {
+                    int neighbor = candidates.get(i).id;
+                    connect(id, neighbor, l);
+                    connect(neighbor, id, l);
+                }
+                current = candidates.get(0).id;
+            }
+
+            if (level > maxLevel) {
+                entryPoint = id;
+                maxLevel = level;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Tombstone the item; its node stays in the graph for navigation until the next save
+    public void delete(String itemId) {
+        lock.writeLock().lock();
+        try {
+            Integer id = nodeByItemId.remove(itemId);
+            if (id != null) {
+                nodes.get(id).deleted = true;
+                modifications++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Item ids of the (approximately) k most cosine-similar live vectors, best first
+    public List<String> search(float[] query, int k) {
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0 || k <= 0) return List.of();
+
+            int current = entryPoint;
+            for (int l = maxLevel; l > 0; l--) {
+                current = greedyClosest(query, current, l);
+            }
+
+            List<String> result = new ArrayList<>(k);
+            for (Candidate candidate : searchLayer(query, current, Math.max(efSearch, k), 0)) {
+                Node node = nodes.get(candidate.id);
+                if (node.deleted) continue;
+                result.add(node.itemId);
+                if (result.size() == k) break;
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // True when the graph changed since it was last saved or loaded
+    public boolean isDirty() {
+        lock.readLock().lock();
+        try {
+            return modifications != savedModifications;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Write live nodes to a memory-mapped file, compacting away tombstones.
+    // The file is written next to the target and moved into place atomically.
+    public void save(Path file) throws IOException {
+        long snapshot;
+        lock.readLock().lock();
+        try {
+            snapshot = modifications;
+            int[] remap = new int[nodes.size()];
+            Arrays.fill(remap, -1);
+            List<Node> live = new ArrayList<>();
+            for (int i = 0; i < nodes.size(); i++) {
+                if (!nodes.get(i).deleted) {
+                    remap[i] = live.size();
+                    live.add(nodes.get(i));
+                }
+            }
+
+            int newEntryPoint = -1;
+            int newMaxLevel = -1;
+            long size = 7L * Integer.BYTES;
+            List<byte[]> idBytes = new ArrayList<>(live.size());
+            for (int i = 0; i < live.size(); i++) {
+                Node node = live.get(i);
+                byte[] bytes = node.itemId.getBytes(StandardCharsets.UTF_8);
+                idBytes.add(bytes);
+                size += 3L * Integer.BYTES + bytes.length + (long) dimensions * Float.BYTES;
+                for (int l = 0; l <= node.level(); l++) {
+                    size += Integer.BYTES + (long) liveNeighbors(node, l, remap) * Integer.BYTES;
+                }
+                if (node.level() > newMaxLevel) {
+                    newMaxLevel = node.level();
+                    newEntryPoint = i;
+                }
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("HNSW index too large for a single mapped file: " + size + " bytes");
+            }
+
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(MAGIC).putInt(VERSION).putInt(dimensions).putInt(maxConnections)
+                        .putInt(live.size()).putInt(newEntryPoint).putInt(newMaxLevel);
+
+                for (int i = 0; i < live.size(); i++) {
+                    Node node = live.get(i);
+                    buffer.putInt(node.level());
+                    buffer.putInt(idBytes.get(i).length).put(idBytes.get(i));
+                    for (float v : node.vector) buffer.putFloat(v);
+                    for (int l = 0; l <= node.level(); l++) {
+                        buffer.putInt(liveNeighbors(node, l, remap));
+                        for (int n = 0; n < node.sizes[l]; n++) {
+                            int mapped = remap[node.neighbors[l][n]];
+                            if (mapped >= 0) buffer.putInt(mapped);
+                        }
+                    }
+                    buffer.putInt(0); // reserved per-node flags
+                }
+                buffer.force();
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            savedModifications = snapshot;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Read an index written by save(); returns null when the file is missing or incompatible
+    public static HnswIndex load(Path file, int dimensions, int maxConnections,
+                                 int efConstruction, int efSearch) throws IOException {
+        if (!Files.exists(file)) return null;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                    || buffer.getInt() != dimensions || buffer.getInt() != maxConnections) {
+                return null;
+            }
+
+            HnswIndex index = new HnswIndex(dimensions, maxConnections, efConstruction, efSearch);
+            int count = buffer.getInt();
+            index.entryPoint = buffer.getInt();
+            index.maxLevel = buffer.getInt();
+
+            for (int i = 0; i < count; i++) {
+                int level = buffer.getInt();
+                byte[] idBytes = new byte[buffer.getInt()];
+                buffer.get(idBytes);
+                float[] vector = new float[dimensions];
+                for (int d = 0; d < dimensions; d++) vector[d] = buffer.getFloat();
+
+                Node node = new Node(new String(idBytes, StandardCharsets.UTF_8), vector, level,
+                        maxConnections, index.maxConnectionsLevel0);
+                for (int l = 0; l <= level; l++) {
+                    int neighbors = buffer.getInt();
+                    for (int n = 0; n < neighbors; n++) {
+                        node.neighbors[l][n] = buffer.getInt();
+                    }
+                    node.sizes[l] = neighbors;
+                }
+                buffer.getInt(); // reserved per-node flags
+
+                index.nodes.add(node);
+                index.nodeByItemId.put(node.itemId, i);
+            }
+            return index;
+        }
+    }
+
+    private static int liveNeighbors(Node node, int level, int[] remap) {
+        int count = 0;
+        for (int n = 0; n < node.sizes[level]; n++) {
+            if (remap[node.neighbors[level][n]] >= 0) count++;
+        }
+        return count;
+    }
+
+    private int randomLevel() {
+        double r = 1.0 - ThreadLocalRandom.current().nextDouble();
+        return (int) Math.floor(-Math.log(r) * levelMultiplier);
+    }
+
+    private int greedyClosest(float[] query, int start, int level) {
+        int current = start;
+        double currentDistance = distance(query, nodes.get(current).vector);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            Node node = nodes.get(current);
+            if (node.level() < level) break;
+            for (int n = 0; n < node.sizes[level]; n++) {
+                int neighbor = node.neighbors[level][n];
+                double d = distance(query, nodes.get(neighbor).vector);
+                if (d < currentDistance) {
+                    currentDistance = d;
+                    current = neighbor;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    // Best-first search of one layer; returns up to ef candidates sorted by distance
+    private List<Candidate> searchLayer(float[] query, int entry, int ef, int level) {
+        BitSet visited = new BitSet(nodes.size());
+        PriorityQueue<Candidate> toVisit = new PriorityQueue<>(Comparator.comparingDouble(c -> c.distance));
+        PriorityQueue<Candidate> best = new PriorityQueue<>(
+                Comparator.comparingDouble((Candidate c) -> c.distance).reversed());
+
+        Candidate start = new Candidate(entry, distance(query, nodes.get(entry).vector));
+        visited.set(entry);
+        toVisit.add(start);
+        best.add(start);
+
+        while (!toVisit.isEmpty()) {
+            Candidate current = toVisit.poll();
+            if (best.size() >= ef && current.distance > best.peek().distance) break;
+
+            Node node = nodes.get(current.id);
+            if (node.level() < level) continue;
+            for (int n = 0; n < node.sizes[level]; n++) {
+                int neighbor = node.neighbors[level][n];
+                if (visited.get(neighbor)) continue;
+                visited.set(neighbor);
+
+                double d = distance(query, nodes.get(neighbor).vector);
+                if (best.size() < ef || d < best.peek().distance) {
+                    Candidate candidate = new Candidate(neighbor, d);
+                    toVisit.add(candidate);
+                    best.add(candidate);
+                    if (best.size() > ef) best.poll();
+                }
+            }
+        }
+
+        List<Candidate> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(c -> c.distance));
+        return result;
+    }
+
+    // Add a directed edge, keeping only the closest neighbors once the list is full
+    private void connect(int from, int to, int level) {
+        Node node = nodes.get(from);
+        if (node.level() < level) return;
+
+        int[] neighbors = node.neighbors[level];
+        int size = node.sizes[level];
+        for (int n = 0; n < size; n++) {
+            if (neighbors[n] == to) return;
+        }
+        if (size < neighbors.length) {
+            neighbors[size] = to;
+            node.sizes[level] = size + 1;
+            return;
+        }
+
+        Integer[] all = new Integer[size + 1];
+        for (int n = 0; n < size; n++) all[n] = neighbors[n];
+        all[size] = to;
+        Arrays.sort(all, Comparator.comparingDouble(n -> distance(node.vector, nodes.get(n).vector)));
+        for (int n = 0; n < neighbors.length; n++) neighbors[n] = all[n];
+    }
+
+    // Cosine distance for unit vectors
+    private static double distance(float[] a, float[] b) {
+        double dot = 0;
+        for (int i = 0; i < a.length; i++) dot += a[i] * b[i];
+        return 1.0 - dot;
+    }
+
+    private record Candidate(int id, double distance) {
+    }
+
+    private static final class Node {
+        final String itemId;
+        final float[] vector;
+        final int[][] neighbors;
+        final int[] sizes;
+        boolean deleted;
+
+        Node(String itemId, float[] vector, int level, int maxConnections, int maxConnectionsLevel0) {
+            this.itemId = itemId;
+            this.vector = vector;
+            this.neighbors = new int[level + 1][];
+            this.sizes = new int[level + 1];
+            for (int l = 0; l <= level; l++) {
+                neighbors[l] = new int[l == 0 ? maxConnectionsLevel0 : maxConnections];
+            }
+        }
+
+        int level() {
+            return neighbors.length - 1;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.campustrack.service;
+
+import com.campustrack.model.FoundItem;
+import com.campustrack.model.LostItem;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// Dense-vector text similarity between lost and found items, used alongside the
+// bag-of-words Jaccard score in AutoMatchService
+public interface ItemEmbeddingScorer {
+
+    // False when no embedding model is configured; callers then skip semantic scoring
+    boolean isEnabled();
+
+    void index(LostItem item);
+
+    void index(FoundItem item);
+
+    void removeLostItem(String id);
+
+    void removeFoundItem(String id);
+
+    // Ids of the (approximately) k found items closest to the lost item, best first
+    List<String> nearestFoundItems(LostItem lostItem, int k);
+
+    // Ids of the (approximately) k lost items closest to the found item, best first
+    List<String> nearestLostItems(FoundItem foundItem, int k);
+
+    // Cosine similarity of the lost item to the given found items, keyed by found item id
+    Map<String, Double> scoreFoundItems(LostItem lostItem, Collection<String> foundItemIds);
+
+    // Cosine similarity of the found item to the given lost items, keyed by lost item id
+    Map<String, Double> scoreLostItems(FoundItem foundItem, Collection<String> lostItemIds);
+}
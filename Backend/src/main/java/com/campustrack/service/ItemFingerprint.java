@@ -0,0 +1,151 @@
+package com.campustrack.service;
+
+import java.util.*;
+
+// Pre-tokenized view of a lost/found item, computed once when the item is saved.
+// Tokens are hashed to stable 64-bit ids and kept sorted so Jaccard is an allocation-free
+// merge; no dictionary is kept, so nothing outlives the fingerprints that use it.
+public final class ItemFingerprint {
+
+    private static final long[] NO_TOKENS = new long[0];
+
+    private final long[] nameTokens;
+    private final long[] textTokens;
+    private final String text;
+    private final String category;
+    private final String[] boostWords;
+    private final int[] nameSignature;
+
+    private ItemFingerprint(String name, String text, String category, String identificationMark,
+                            int[] nameSignature, boolean computeSignature) {
+        this.nameTokens = tokenize(name);
+        this.nameSignature = MinHash.isValid(nameSignature) || !computeSignature
+                ? nameSignature : MinHash.signature(name);
+        this.text = text.toLowerCase();
+        this.textTokens = tokenize(this.text);
+        this.category = normalizeCategory(category);
+        this.boostWords = extractBoostWords(identificationMark);
+    }
+
+    // Fingerprint from an item's name, description, place and category text.
+    // A stored name signature is reused when present, otherwise it is computed here.
+    public static ItemFingerprint of(String name, String description, String place,
+                                     String category, String identificationMark, int[] nameSignature) {
+        return new ItemFingerprint(name, joinText(name, description, place, category),
+                category, identificationMark, nameSignature, true);
+    }
+
+    // Fingerprint of free-text search input, where the text stands in for both name and
+    // description. Token ids are plain hashes, so nothing is retained for the query's words,
+    // and no name signature is computed since a query is never bucketed.
+    public static ItemFingerprint query(String text, String place) {
+        return new ItemFingerprint(text, joinText(text, text, place), null, null, null, false);
+    }
+
+    public long[] getNameTokens() {
+        return nameTokens;
+    }
+
+    public long[] getTextTokens() {
+        return textTokens;
+    }
+
+    public int[] getNameSignature() {
+        return nameSignature;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public boolean sameCategory(ItemFingerprint other) {
+        return category != null && category.equals(other.category);
+    }
+
+    // Blocking key: lowercase, trimmed, inner whitespace collapsed; null when blank
+    public static String normalizeCategory(String category) {
+        if (category == null) return null;
+        String normalized = category.trim().replaceAll("\\s+", " ").toLowerCase();
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    // Number of identification-mark words found anywhere in the other item's text
+    public int countBoostWordsIn(ItemFingerprint other) {
+        int count = 0;
+        for (String word : boostWords) {
+            if (other.text.contains(word)) count++;
+        }
+        return count;
+    }
+
+    // Jaccard index of two sorted, duplicate-free token id arrays
+    public static double jaccard(long[] a, long[] b) {
+        if (a.length == 0 || b.length == 0) return 0.0;
+
+        int i = 0, j = 0, intersection = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                intersection++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int union = a.length + b.length - intersection;
+        return (double) intersection / union;
+    }
+
+    // Id of a lowercased token: FNV-1a over its chars with a SplitMix64 finalizer. The same
+    // word always gets the same id, and two distinct words share one with probability ~2^-64.
+    public static long tokenId(String token) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < token.length(); i++) {
+            h ^= token.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    private static long[] tokenize(String value) {
+        if (value == null || value.isEmpty()) return NO_TOKENS;
+
+        String[] words = value.toLowerCase().split("\\s+");
+        long[] ids = new long[words.length];
+        int n = 0;
+        for (String word : words) {
+            if (!word.isEmpty()) ids[n++] = tokenId(word);
+        }
+        if (n == 0) return NO_TOKENS;
+
+        Arrays.sort(ids, 0, n);
+        int unique = 1;
+        for (int k = 1; k < n; k++) {
+            if (ids[k] != ids[unique - 1]) ids[unique++] = ids[k];
+        }
+        return Arrays.copyOf(ids, unique);
+    }
+
+    private static String joinText(String... parts) {
+        StringBuilder sb = new StringBuilder();
+        for (String part : parts) {
+            if (part != null) sb.append(part).append(" ");
+        }
+        return sb.toString();
+    }
+
+    private static String[] extractBoostWords(String identificationMark) {
+        if (identificationMark == null || identificationMark.isEmpty()) return new String[0];
+        return Arrays.stream(identificationMark.toLowerCase().split("\\W+"))
+                .filter(w -> w.length() > 2)
+                .toArray(String[]::new);
+    }
+}
@@ -0,0 +1,66 @@
+package com.campustrack.service;
+
+import com.campustrack.model.FoundItem;
+import com.campustrack.model.LostItem;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.stereotype.Component;
+
+// Keeps the in-memory item index, embedding cache and AI response cache version in sync with every save/delete
+// of lost and found items
+@Component
+public class ItemIndexEventListener extends AbstractMongoEventListener<Object> {
+
+    @Autowired
+    private ItemTokenIndex itemTokenIndex;
+
+    @Autowired
+    private ItemEmbeddingScorer itemEmbeddingScorer;
+
+    @Autowired
+    private GeminiResponseCache geminiResponseCache;
+
+    // Store the name MinHash with the document so restarts can rebuild LSH buckets without re-hashing
+    @Override
+    public void onBeforeConvert(BeforeConvertEvent<Object> event) {
+        Object source = event.getSource();
+        if (source instanceof LostItem lostItem) {
+            lostItem.setNameSignature(MinHash.signature(lostItem.getItemName()));
+        } else if (source instanceof FoundItem foundItem) {
+            foundItem.setNameSignature(MinHash.signature(foundItem.getItemName()));
+        }
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        Object source = event.getSource();
+        if (source instanceof LostItem lostItem) {
+            itemTokenIndex.index(lostItem);
+            itemEmbeddingScorer.index(lostItem);
+        } else if (source instanceof FoundItem foundItem) {
+            itemTokenIndex.index(foundItem);
+            itemEmbeddingScorer.index(foundItem);
+            geminiResponseCache.foundItemsChanged();
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        Document query = event.getSource();
+        Object id = query != null ? query.get("_id") : null;
+        if (id == null) return;
+
+        if (LostItem.class.equals(event.getType())) {
+            itemTokenIndex.removeLostItem(id.toString());
+            itemEmbeddingScorer.removeLostItem(id.toString());
+        } else if (FoundItem.class.equals(event.getType())) {
+            itemTokenIndex.removeFoundItem(id.toString());
+            itemEmbeddingScorer.removeFoundItem(id.toString());
+            geminiResponseCache.foundItemsChanged();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.campustrack.service;
+
+import com.campustrack.model.FoundItem;
+import com.campustrack.model.LostItem;
+import com.campustrack.repository.FoundItemRepository;
+import com.campustrack.repository.LostItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory inverted index used to pick match candidates without scanning the whole
+// lost/found collection on every report. Names are bucketed by MinHash LSH bands and
+// categories by their normalized value; found items are also posted under each text
+// token for free-text search. Also caches the per-item fingerprint so scoring never
+// re-tokenizes stored items.
+@Component
+public class ItemTokenIndex {
+
+    private static final String CATEGORY_PREFIX = "cat:";
+    private static final long CATEGORY_BAND = MinHash.NUM_BANDS;
+
+    @Autowired
+    private LostItemRepository lostItemRepository;
+
+    @Autowired
+    private FoundItemRepository foundItemRepository;
+
+    private final Postings lostPostings = new Postings(false);
+    private final Postings foundPostings = new Postings(true);
+
+    private volatile boolean ready = false;
+
+    // Build the index from the database once the application has started
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            lostPostings.clear();
+            foundPostings.clear();
+            lostItemRepository.findAll().forEach(this::index);
+            foundItemRepository.findAll().forEach(this::index);
+            ready = true;
+        } catch (Exception e) {
+            ready = false;
+            System.err.println("Failed to build item token index: " + e.getMessage());
+        }
+    }
+
+    // Callers fall back to a full scan until the index has been built
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(LostItem item) {
+        if (item.getId() == null) return;
+        lostPostings.put(item.getId(), computeFingerprint(item));
+    }
+
+    public void index(FoundItem item) {
+        if (item.getId() == null) return;
+        foundPostings.put(item.getId(), computeFingerprint(item));
+    }
+
+    public void removeLostItem(String id) {
+        lostPostings.remove(id);
+    }
+
+    public void removeFoundItem(String id) {
+        foundPostings.remove(id);
+    }
+
+    // Cached fingerprint for a saved item, computed on the fly for anything not yet indexed
+    public ItemFingerprint fingerprint(LostItem item) {
+        ItemFingerprint cached = item.getId() != null ? lostPostings.fingerprint(item.getId()) : null;
+        return cached != null ? cached : computeFingerprint(item);
+    }
+
+    public ItemFingerprint fingerprint(FoundItem item) {
+        ItemFingerprint cached = item.getId() != null ? foundPostings.fingerprint(item.getId()) : null;
+        return cached != null ? cached : computeFingerprint(item);
+    }
+
+    // Found items sharing an LSH name bucket or the category with the lost item
+    public Set<String> findFoundCandidates(LostItem lostItem) {
+        return foundPostings.lookup(keysFor(fingerprint(lostItem)));
+    }
+
+    // Lost items sharing an LSH name bucket or the category with the found item
+    public Set<String> findLostCandidates(FoundItem foundItem) {
+        return lostPostings.lookup(keysFor(fingerprint(foundItem)));
+    }
+
+    // Found items whose name is likely above the Jaccard threshold, ignoring category
+    public Set<String> findFoundNameCandidates(LostItem lostItem) {
+        return foundPostings.lookup(MinHash.bandKeys(fingerprint(lostItem).getNameSignature()));
+    }
+
+    // Found items sharing at least one text token with the query; every other item has a
+    // zero Jaccard score against it
+    public Set<String> findFoundTextCandidates(ItemFingerprint query) {
+        return foundPostings.lookupText(query.getTextTokens());
+    }
+
+    // Cached fingerprint of an indexed found item, null when it is not indexed
+    public ItemFingerprint foundFingerprint(String id) {
+        return foundPostings.fingerprint(id);
+    }
+
+    private ItemFingerprint computeFingerprint(LostItem item) {
+        return ItemFingerprint.of(item.getItemName(), item.getItemDescription(), item.getLocation(),
+                item.getItemCategory(), item.getIdentificationMark(), item.getNameSignature());
+    }
+
+    private ItemFingerprint computeFingerprint(FoundItem item) {
+        return ItemFingerprint.of(item.getItemName(), item.getItemDescription(), item.getPlaceFound(),
+                item.getCategory(), null, item.getNameSignature());
+    }
+
+    // LSH band keys of the name signature plus one key for the category
+    private static long[] keysFor(ItemFingerprint fingerprint) {
+        long[] bands = MinHash.bandKeys(fingerprint.getNameSignature());
+        String category = fingerprint.getCategory();
+        if (category == null) return bands;
+
+        long[] keys = Arrays.copyOf(bands, bands.length + 1);
+        keys[bands.length] = (CATEGORY_BAND << 32)
+                | (ItemFingerprint.tokenId(CATEGORY_PREFIX + category) & 0xFFFFFFFFL);
+        return keys;
+    }
+
+    // Posting lists and fingerprints for one collection
+    private static class Postings {
+        private final Map<Long, Set<String>> idsByKey = new ConcurrentHashMap<>();
+        private final Map<Long, Set<String>> idsByTextToken = new ConcurrentHashMap<>();
+        private final Map<String, ItemFingerprint> fingerprintsById = new ConcurrentHashMap<>();
+        private final boolean indexText;
+
+        Postings(boolean indexText) {
+            this.indexText = indexText;
+        }
+
+        synchronized void put(String id, ItemFingerprint fingerprint) {
+            remove(id);
+            fingerprintsById.put(id, fingerprint);
+            for (long key : keysFor(fingerprint)) {
+                idsByKey.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+            if (indexText) {
+                for (long token : fingerprint.getTextTokens()) {
+                    idsByTextToken.computeIfAbsent(token, k -> ConcurrentHashMap.newKeySet()).add(id);
+                }
+            }
+        }
+
+        synchronized void remove(String id) {
+            ItemFingerprint fingerprint = fingerprintsById.remove(id);
+            if (fingerprint == null) return;
+            for (long key : keysFor(fingerprint)) {
+                Set<String> ids = idsByKey.get(key);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) idsByKey.remove(key);
+                }
+            }
+            if (indexText) {
+                for (long token : fingerprint.getTextTokens()) {
+                    Set<String> ids = idsByTextToken.get(token);
+                    if (ids != null) {
+                        ids.remove(id);
+                        if (ids.isEmpty()) idsByTextToken.remove(token);
+                    }
+                }
+            }
+        }
+
+        synchronized void clear() {
+            idsByKey.clear();
+            idsByTextToken.clear();
+            fingerprintsById.clear();
+        }
+
+        ItemFingerprint fingerprint(String id) {
+            return fingerprintsById.get(id);
+        }
+
+        Set<String> lookup(long[] keys) {
+            Set<String> result = new HashSet<>();
+            for (long key : keys) {
+                Set<String> ids = idsByKey.get(key);
+                if (ids != null) result.addAll(ids);
+            }
+            return result;
+        }
+
+        Set<String> lookupText(long[] tokens) {
+            Set<String> result = new HashSet<>();
+            for (long token : tokens) {
+                Set<String> ids = idsByTextToken.get(token);
+                if (ids != null) result.addAll(ids);
+            }
+            return result;
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.campustrack.service;
 
+import com.campustrack.dto.CursorPage;
 import com.campustrack.dto.LostItemRequest;
 import com.campustrack.model.LostItem;
 import com.campustrack.model.User;
 import com.campustrack.repository.LostItemRepository;
+import com.campustrack.repository.KeysetPager;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,11 +22,14 @@ public class LostItemService {
     @Autowired
     private LostItemRepository lostItemRepository;
     
+    @Autowired
+    private KeysetPager keysetPager;
+    
     @Autowired
     private Cloudinary cloudinary;
     
     @Autowired
-    private AutoMatchService autoMatchService;
+    private MatchingPipeline matchingPipeline;
     
     // Process new lost item report from user with optional image
     public LostItem reportLostItem(LostItemRequest request, MultipartFile imageFile, User user) throws IOException {
@@ -47,21 +52,18 @@ public class LostItemService {
             lostItem.setItemImage((String) uploadResult.get("url"));
         }
         
+        lostItem.setMatchingStatus(MatchingPipeline.STATUS_QUEUED);
         LostItem savedItem = lostItemRepository.save(lostItem);
         
-        // Automatically check for matches with found items
-        try {
-            autoMatchService.checkMatchesForLostItem(savedItem);
-        } catch (Exception e) {
-            System.err.println("Auto-match failed: " + e.getMessage());
-        }
+        // Match against found items in the background; if the queue is full the sweeper picks it up
+        matchingPipeline.submit(savedItem);
         
         return savedItem;
     }
     
-    // Fetch all lost items sorted by newest first
-    public List<LostItem> getLostItems() {
-        return lostItemRepository.findAllByOrderByCreatedAtDesc();
+    // Fetch one page of lost items, newest first
+    public CursorPage<LostItem> getLostItems(String cursor, int limit) {
+        return keysetPager.page(null, LostItem.class, cursor, limit, false, LostItem::getCreatedAt, LostItem::getId);
     }
     
     // Remove lost item from database
@@ -23,7 +23,7 @@ public class MatchService {
     private FoundItemRepository foundItemRepository;
     
     @Autowired
-    private NotificationRepository notificationRepository;
+    private NotificationService notificationService;
     
     // Create new match between lost and found item
     public Match matchItems(MatchRequest request) {
@@ -37,7 +37,8 @@ public class MatchService {
         match.setFoundItemId(request.getFoundItemId());
         match.setStatus("pending");
         
-        Match savedMatch = matchRepository.save(match);
+        Match savedMatch = matchRepository.insertIfAbsent(match)
+                .orElseThrow(() -> new RuntimeException("These items are already matched"));
         
         // Send notification
         Notification notification = new Notification();
@@ -49,7 +50,7 @@ public class MatchService {
         data.put("foundItemId", request.getFoundItemId());
         data.put("matchId", savedMatch.getId());
         notification.setData(data);
-        notificationRepository.save(notification);
+        notificationService.send(notification);
         
         return savedMatch;
     }
@@ -86,7 +87,7 @@ public class MatchService {
         data.put("lostItemId", match.getLostItemId());
         data.put("foundItemId", match.getFoundItemId());
         notification.setData(data);
-        notificationRepository.save(notification);
+        notificationService.send(notification);
         
         return savedMatch;
     }
@@ -119,7 +120,7 @@ public class MatchService {
         data.put("lostItemId", match.getLostItemId());
         data.put("foundItemId", match.getFoundItemId());
         notification.setData(data);
-        notificationRepository.save(notification);
+        notificationService.send(notification);
         
         return savedMatch;
     }
@@ -0,0 +1,142 @@
+package com.campustrack.service;
+
+import com.campustrack.model.FoundItem;
+import com.campustrack.model.LostItem;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs auto-matching for newly reported items on a small worker pool so report requests
+// return as soon as the item is saved. The queue is bounded: when it is full the item simply
+// stays "queued" in Mongo and the sweeper submits it later, so request threads never block.
+@Service
+public class MatchingPipeline {
+
+    public static final String STATUS_QUEUED = "queued";
+    public static final String STATUS_RUNNING = "running";
+    public static final String STATUS_DONE = "done";
+    public static final String STATUS_FAILED = "failed";
+
+    @Autowired
+    private AutoMatchService autoMatchService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${matching.pipeline.workers:2}")
+    private int workers;
+
+    @Value("${matching.pipeline.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${matching.pipeline.max-attempts:3}")
+    private int maxAttempts;
+
+    private ThreadPoolExecutor executor;
+
+    // Ids currently queued or running, so the sweeper never submits an item twice
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "match-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    // Queue matching for a saved lost item; returns false when the queue is full
+    public boolean submit(LostItem lostItem) {
+        return submit(lostItem.getId(), LostItem.class,
+                () -> autoMatchService.checkMatchesForLostItem(lostItem));
+    }
+
+    // Queue matching for a saved found item; returns false when the queue is full
+    public boolean submit(FoundItem foundItem) {
+        return submit(foundItem.getId(), FoundItem.class,
+                () -> autoMatchService.checkMatchesForFoundItem(foundItem));
+    }
+
+    // Resubmit items still waiting: rejected by a full queue, retried after a failure, or
+    // interrupted by a restart while queued or running
+    @Scheduled(fixedDelayString = "${matching.pipeline.sweep-interval-ms:30000}")
+    public void sweep() {
+        for (LostItem lostItem : mongoTemplate.find(pendingQuery(), LostItem.class)) {
+            if (!inFlight.contains(lostItem.getId()) && !submit(lostItem)) return;
+        }
+        for (FoundItem foundItem : mongoTemplate.find(pendingQuery(), FoundItem.class)) {
+            if (!inFlight.contains(foundItem.getId()) && !submit(foundItem)) return;
+        }
+    }
+
+    private boolean submit(String itemId, Class<?> itemType, Callable<Integer> matcher) {
+        if (itemId == null || !inFlight.add(itemId)) return false;
+        try {
+            executor.execute(() -> run(itemId, itemType, matcher));
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Backpressure: leave the item queued for the sweeper
+            inFlight.remove(itemId);
+            return false;
+        }
+    }
+
+    private void run(String itemId, Class<?> itemType, Callable<Integer> matcher) {
+        try {
+            setStatus(itemId, itemType, STATUS_RUNNING);
+            matcher.call();
+            setStatus(itemId, itemType, STATUS_DONE);
+        } catch (Exception e) {
+            System.err.println("Auto-match failed for " + itemId + ": " + e.getMessage());
+            recordFailure(itemId, itemType);
+        } finally {
+            inFlight.remove(itemId);
+        }
+    }
+
+    // Failed runs go back to "queued" until maxAttempts is reached
+    private void recordFailure(String itemId, Class<?> itemType) {
+        try {
+            Query query = Query.query(Criteria.where("_id").is(itemId));
+            Object item = mongoTemplate.findAndModify(query,
+                    new Update().inc("matchingAttempts", 1), itemType);
+            int attempts = item instanceof LostItem lost ? lost.getMatchingAttempts()
+                    : item instanceof FoundItem found ? found.getMatchingAttempts() : maxAttempts;
+            setStatus(itemId, itemType, attempts + 1 >= maxAttempts ? STATUS_FAILED : STATUS_QUEUED);
+        } catch (Exception e) {
+            System.err.println("Failed to record match failure for " + itemId + ": " + e.getMessage());
+        }
+    }
+
+    // Partial update so the item document (and its index entries) are left untouched
+    private void setStatus(String itemId, Class<?> itemType, String status) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(itemId)),
+                new Update().set("matchingStatus", status), itemType);
+    }
+
+    private Query pendingQuery() {
+        return Query.query(Criteria.where("matchingStatus").in(STATUS_QUEUED, STATUS_RUNNING))
+                .limit(queueCapacity);
+    }
+}
@@ -0,0 +1,77 @@
+package com.campustrack.service;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+// MinHash signatures over item-name tokens and the LSH banding used to bucket them.
+// Signatures are stored with the item document, so hashing must be stable across restarts.
+public final class MinHash {
+
+    public static final int NUM_HASHES = 128;
+    public static final int ROWS_PER_BAND = 2;
+    public static final int NUM_BANDS = NUM_HASHES / ROWS_PER_BAND;
+
+    // With 64 bands of 2 rows a pair at the 0.3 name threshold lands in a shared
+    // bucket with probability 1 - (1 - 0.3^2)^64 ~ 0.998
+    private static final long[] SEEDS = new long[NUM_HASHES];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x43414D505553L);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            SEEDS[i] = random.nextLong();
+        }
+    }
+
+    private MinHash() {
+    }
+
+    // Signature of the whitespace-separated, lowercased tokens of a name; null when there are none
+    public static int[] signature(String name) {
+        if (name == null || name.isBlank()) return null;
+
+        Set<String> tokens = new HashSet<>();
+        for (String token : name.toLowerCase().split("\\s+")) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        if (tokens.isEmpty()) return null;
+
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String token : tokens) {
+            long base = token.hashCode() * 0x9E3779B97F4A7C15L;
+            for (int i = 0; i < NUM_HASHES; i++) {
+                int h = (int) mix(base ^ SEEDS[i]);
+                if (h < signature[i]) signature[i] = h;
+            }
+        }
+        return signature;
+    }
+
+    public static boolean isValid(int[] signature) {
+        return signature != null && signature.length == NUM_HASHES;
+    }
+
+    // One bucket key per band; the band number sits in the high bits so bands never collide
+    public static long[] bandKeys(int[] signature) {
+        if (!isValid(signature)) return new long[0];
+
+        long[] keys = new long[NUM_BANDS];
+        for (int band = 0; band < NUM_BANDS; band++) {
+            long h = band;
+            for (int row = 0; row < ROWS_PER_BAND; row++) {
+                h = h * 31 + signature[band * ROWS_PER_BAND + row];
+            }
+            keys[band] = ((long) band << 32) | (mix(h) & 0xFFFFFFFFL);
+        }
+        return keys;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
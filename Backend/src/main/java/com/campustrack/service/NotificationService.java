@@ -0,0 +1,96 @@
+package com.campustrack.service;
+
+import com.campustrack.model.Notification;
+import com.campustrack.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+// Creates notifications and pushes each new one to the recipient's open Server-Sent Event
+// streams, keyed by user email, so connected clients do not have to poll for them
+@Service
+public class NotificationService {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+
+    @Value("${notifications.stream.timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
+    private final Map<String, Set<SseEmitter>> emittersByEmail = new ConcurrentHashMap<>();
+
+    // Save the notification, count it as unread and push it to every open stream of its user
+    public Notification send(Notification notification) {
+        Notification saved = notificationRepository.save(notification);
+        if (!Boolean.TRUE.equals(saved.getIsRead())) {
+            unreadCounterService.notificationCreated(saved.getUserEmail());
+        }
+        publish(saved);
+        return saved;
+    }
+
+    // Open a stream of "notification" events for the user; browsers reconnect on timeout
+    public SseEmitter subscribe(String userEmail) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        emittersByEmail.compute(userEmail, (email, emitters) -> {
+            Set<SseEmitter> result = emitters != null ? emitters : new CopyOnWriteArraySet<>();
+            result.add(emitter);
+            return result;
+        });
+
+        Runnable remove = () -> unsubscribe(userEmail, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        return emitter;
+    }
+
+    // Comment lines keep idle connections open through proxies and reveal dead clients
+    @Scheduled(fixedDelayString = "${notifications.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        emittersByEmail.forEach((email, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                } catch (Exception e) {
+                    unsubscribe(email, emitter);
+                }
+            }
+        });
+    }
+
+    private void publish(Notification notification) {
+        if (notification.getUserEmail() == null) return;
+        Set<SseEmitter> emitters = emittersByEmail.get(notification.getUserEmail());
+        if (emitters == null) return;
+
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name("notification")
+                        .id(notification.getId())
+                        .data(notification, MediaType.APPLICATION_JSON));
+            } catch (Exception e) {
+                unsubscribe(notification.getUserEmail(), emitter);
+            }
+        }
+    }
+
+    private void unsubscribe(String userEmail, SseEmitter emitter) {
+        emittersByEmail.computeIfPresent(userEmail, (email, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
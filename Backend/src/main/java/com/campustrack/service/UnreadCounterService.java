@@ -0,0 +1,118 @@
+package com.campustrack.service;
+
+import com.campustrack.model.Message;
+import com.campustrack.model.Notification;
+import com.campustrack.model.UnreadCounter;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Materialized unread counts per user. Creating a notification or message and marking them
+// read adjust the user's counter document with a single atomic $inc, so reading the badge
+// counts is one lookup by id. A periodic job recounts from the source collections to fix drift.
+@Service
+public class UnreadCounterService {
+
+    private static final String NOTIFICATIONS = "notifications";
+    private static final String MESSAGES = "messages";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public void notificationCreated(String userEmail) {
+        add(userEmail, NOTIFICATIONS, 1);
+    }
+
+    public void notificationsRead(String userEmail, long count) {
+        add(userEmail, NOTIFICATIONS, -count);
+    }
+
+    public void messageCreated(String receiverEmail) {
+        add(receiverEmail, MESSAGES, 1);
+    }
+
+    public void messagesRead(String receiverEmail, long count) {
+        add(receiverEmail, MESSAGES, -count);
+    }
+
+    // Current counts; a counter that drifted below zero reads as zero until reconciled
+    public Map<String, Long> counts(String userEmail) {
+        UnreadCounter counter = mongoTemplate.findById(userEmail, UnreadCounter.class);
+        long notifications = counter != null ? Math.max(0, counter.getNotifications()) : 0;
+        long messages = counter != null ? Math.max(0, counter.getMessages()) : 0;
+        return Map.of(NOTIFICATIONS, notifications, MESSAGES, messages);
+    }
+
+    // Recount unread notifications and messages per user and overwrite the counters.
+    // Counters changed while the recount ran are skipped and fixed on the next run, so a
+    // concurrent $inc is never overwritten by a stale count.
+    @Scheduled(fixedDelayString = "${unread-counters.reconcile-interval-ms:600000}",
+               initialDelayString = "${unread-counters.reconcile-initial-delay-ms:60000}")
+    public void reconcile() {
+        Instant startedAt = Instant.now();
+        try {
+            Map<String, Long> notifications = countUnread(Notification.class, "userEmail", "isRead");
+            Map<String, Long> messages = countUnread(Message.class, "receiverEmail", "read");
+
+            Set<String> users = new HashSet<>(notifications.keySet());
+            users.addAll(messages.keySet());
+            users.addAll(mongoTemplate.findDistinct(new Query(), "_id", UnreadCounter.class, String.class));
+
+            for (String userEmail : users) {
+                Query query = Query.query(Criteria.where("_id").is(userEmail)
+                        .orOperator(Criteria.where("updatedAt").lt(startedAt),
+                                    Criteria.where("updatedAt").exists(false)));
+                Update update = new Update()
+                        .set(NOTIFICATIONS, notifications.getOrDefault(userEmail, 0L))
+                        .set(MESSAGES, messages.getOrDefault(userEmail, 0L))
+                        .set("updatedAt", startedAt);
+                try {
+                    mongoTemplate.upsert(query, update, UnreadCounter.class);
+                } catch (DuplicateKeyException e) {
+                    // Counter was updated during the recount; leave it for the next run
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Unread counter reconciliation failed: " + e.getMessage());
+        }
+    }
+
+    private void add(String userEmail, String field, long delta) {
+        if (userEmail == null || delta == 0) return;
+        try {
+            Update update = new Update().inc(field, delta).set("updatedAt", Instant.now());
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(userEmail)), update, UnreadCounter.class);
+        } catch (Exception e) {
+            // The source documents are already written; reconciliation repairs the count
+            System.err.println("Failed to update unread counter for " + userEmail + ": " + e.getMessage());
+        }
+    }
+
+    private Map<String, Long> countUnread(Class<?> type, String userField, String readField) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where(readField).is(false)),
+                Aggregation.group(userField).count().as("count"));
+
+        Map<String, Long> counts = new HashMap<>();
+        for (Document result : mongoTemplate.aggregate(aggregation, type, Document.class).getMappedResults()) {
+            Object userEmail = result.get("_id");
+            if (userEmail != null) {
+                counts.put(userEmail.toString(), ((Number) result.get("count")).longValue());
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,327 @@
+package com.campustrack.service;
+
+import com.campustrack.model.FoundItem;
+import com.campustrack.model.LostItem;
+import com.campustrack.repository.FoundItemRepository;
+import com.campustrack.repository.LostItemRepository;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+// Embedding scorer backed by a local word-vector file (GloVe / word2vec text format).
+// An item vector is the normalized mean of its word vectors; all vectors of one collection
+// live in a single ND4J matrix so scoring a set of candidates is one matrix-vector multiply.
+// Each collection also has an HNSW graph for nearest-neighbour candidate lookup, persisted
+// under matching.hnsw.directory so restarts only re-insert items whose vector changed.
+@Component
+public class WordVectorEmbeddingScorer implements ItemEmbeddingScorer {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final String LOST_GRAPH_FILE = "lost-items.hnsw";
+    private static final String FOUND_GRAPH_FILE = "found-items.hnsw";
+
+    @Autowired
+    private LostItemRepository lostItemRepository;
+
+    @Autowired
+    private FoundItemRepository foundItemRepository;
+
+    @Value("${matching.embedding.model-path:}")
+    private String modelPath;
+
+    @Value("${matching.hnsw.directory:./data/hnsw}")
+    private String hnswDirectory;
+
+    @Value("${matching.hnsw.max-connections:16}")
+    private int hnswMaxConnections;
+
+    @Value("${matching.hnsw.ef-construction:100}")
+    private int hnswEfConstruction;
+
+    @Value("${matching.hnsw.ef-search:64}")
+    private int hnswEfSearch;
+
+    private Map<String, float[]> wordVectors = Map.of();
+    private int dimensions;
+    private VectorMatrix lostVectors;
+    private VectorMatrix foundVectors;
+    private HnswIndex lostGraph;
+    private HnswIndex foundGraph;
+    private volatile boolean enabled = false;
+
+    // Load the word vectors and embed every stored item once the application has started
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (modelPath == null || modelPath.isBlank()) return;
+
+        try {
+            wordVectors = readWordVectors(Path.of(modelPath));
+            lostVectors = new VectorMatrix(dimensions);
+            foundVectors = new VectorMatrix(dimensions);
+            lostGraph = openGraph(LOST_GRAPH_FILE);
+            foundGraph = openGraph(FOUND_GRAPH_FILE);
+            enabled = true;
+
+            // Items deleted while the application was down are dropped from the persisted graphs
+            Set<String> staleLost = lostGraph.itemIds();
+            for (LostItem item : lostItemRepository.findAll()) {
+                index(item);
+                staleLost.remove(item.getId());
+            }
+            staleLost.forEach(lostGraph::delete);
+
+            Set<String> staleFound = foundGraph.itemIds();
+            for (FoundItem item : foundItemRepository.findAll()) {
+                index(item);
+                staleFound.remove(item.getId());
+            }
+            staleFound.forEach(foundGraph::delete);
+
+            flushGraphs();
+            System.out.println("Loaded " + wordVectors.size() + " word vectors from " + modelPath);
+        } catch (Exception e) {
+            enabled = false;
+            System.err.println("Failed to load word vectors: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void index(LostItem item) {
+        if (!enabled || item.getId() == null) return;
+        float[] vector = embed(textOf(item));
+        lostVectors.put(item.getId(), vector);
+        updateGraph(lostGraph, item.getId(), vector);
+    }
+
+    @Override
+    public void index(FoundItem item) {
+        if (!enabled || item.getId() == null) return;
+        float[] vector = embed(textOf(item));
+        foundVectors.put(item.getId(), vector);
+        updateGraph(foundGraph, item.getId(), vector);
+    }
+
+    @Override
+    public void removeLostItem(String id) {
+        if (!enabled) return;
+        lostVectors.remove(id);
+        lostGraph.delete(id);
+    }
+
+    @Override
+    public void removeFoundItem(String id) {
+        if (!enabled) return;
+        foundVectors.remove(id);
+        foundGraph.delete(id);
+    }
+
+    @Override
+    public List<String> nearestFoundItems(LostItem lostItem, int k) {
+        if (!enabled) return List.of();
+        float[] query = embed(textOf(lostItem));
+        return query != null ? foundGraph.search(query, k) : List.of();
+    }
+
+    @Override
+    public List<String> nearestLostItems(FoundItem foundItem, int k) {
+        if (!enabled) return List.of();
+        float[] query = embed(textOf(foundItem));
+        return query != null ? lostGraph.search(query, k) : List.of();
+    }
+
+    // Persist graphs that changed since the last flush
+    @Scheduled(fixedDelayString = "${matching.hnsw.flush-interval-ms:60000}")
+    @PreDestroy
+    public void flushGraphs() {
+        if (!enabled) return;
+        saveGraph(lostGraph, LOST_GRAPH_FILE);
+        saveGraph(foundGraph, FOUND_GRAPH_FILE);
+    }
+
+    private HnswIndex openGraph(String fileName) {
+        Path file = Path.of(hnswDirectory, fileName);
+        try {
+            HnswIndex graph = HnswIndex.load(file, dimensions, hnswMaxConnections,
+                    hnswEfConstruction, hnswEfSearch);
+            if (graph != null) return graph;
+        } catch (Exception e) {
+            System.err.println("Ignoring unreadable HNSW index " + file + ": " + e.getMessage());
+        }
+        return new HnswIndex(dimensions, hnswMaxConnections, hnswEfConstruction, hnswEfSearch);
+    }
+
+    private void saveGraph(HnswIndex graph, String fileName) {
+        if (!graph.isDirty()) return;
+        try {
+            graph.save(Path.of(hnswDirectory, fileName));
+        } catch (Exception e) {
+            System.err.println("Failed to save HNSW index " + fileName + ": " + e.getMessage());
+        }
+    }
+
+    // Skip re-insertion when the persisted vector is unchanged, so restarts don't rebuild the graph
+    private void updateGraph(HnswIndex graph, String id, float[] vector) {
+        if (vector == null) {
+            graph.delete(id);
+        } else if (!Arrays.equals(graph.vector(id), vector)) {
+            graph.insert(id, vector);
+        }
+    }
+
+    @Override
+    public Map<String, Double> scoreFoundItems(LostItem lostItem, Collection<String> foundItemIds) {
+        if (!enabled) return Map.of();
+        return foundVectors.score(embed(textOf(lostItem)), foundItemIds);
+    }
+
+    @Override
+    public Map<String, Double> scoreLostItems(FoundItem foundItem, Collection<String> lostItemIds) {
+        if (!enabled) return Map.of();
+        return lostVectors.score(embed(textOf(foundItem)), lostItemIds);
+    }
+
+    private String textOf(LostItem item) {
+        return String.join(" ", Objects.toString(item.getItemName(), ""),
+                Objects.toString(item.getItemDescription(), ""),
+                Objects.toString(item.getItemCategory(), ""),
+                Objects.toString(item.getIdentificationMark(), ""));
+    }
+
+    private String textOf(FoundItem item) {
+        return String.join(" ", Objects.toString(item.getItemName(), ""),
+                Objects.toString(item.getItemDescription(), ""),
+                Objects.toString(item.getCategory(), ""));
+    }
+
+    // Mean of the known word vectors, L2-normalized; null when no word is in the vocabulary
+    private float[] embed(String text) {
+        float[] sum = new float[dimensions];
+        int known = 0;
+        for (String word : text.toLowerCase().split("\\W+")) {
+            float[] vector = wordVectors.get(word);
+            if (vector == null) continue;
+            for (int i = 0; i < dimensions; i++) sum[i] += vector[i];
+            known++;
+        }
+        if (known == 0) return null;
+
+        double norm = 0;
+        for (float v : sum) norm += v * v;
+        norm = Math.sqrt(norm);
+        if (norm == 0) return null;
+        for (int i = 0; i < dimensions; i++) sum[i] /= (float) norm;
+        return sum;
+    }
+
+    // One "word v1 v2 ..." entry per line; a leading "count dimensions" header is skipped
+    private Map<String, float[]> readWordVectors(Path path) throws Exception {
+        Map<String, float[]> vectors = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.trim().split(" ");
+                if (parts.length < 3) continue;
+
+                if (dimensions == 0) dimensions = parts.length - 1;
+                if (parts.length - 1 != dimensions) continue;
+
+                float[] vector = new float[dimensions];
+                for (int i = 0; i < dimensions; i++) {
+                    vector[i] = Float.parseFloat(parts[i + 1]);
+                }
+                vectors.put(parts[0].toLowerCase(), vector);
+            }
+        }
+        if (vectors.isEmpty()) {
+            throw new IllegalStateException("No word vectors found in " + path);
+        }
+        return vectors;
+    }
+
+    // Unit vectors of one collection stored as rows of a growable ND4J matrix
+    private static class VectorMatrix {
+        private final int dimensions;
+        private final Map<String, Integer> slotById = new HashMap<>();
+        private final List<String> idBySlot = new ArrayList<>();
+        private final Deque<Integer> freeSlots = new ArrayDeque<>();
+        private INDArray matrix;
+
+        VectorMatrix(int dimensions) {
+            this.dimensions = dimensions;
+            this.matrix = Nd4j.zeros(DataType.FLOAT, INITIAL_CAPACITY, dimensions);
+        }
+
+        synchronized void put(String id, float[] vector) {
+            if (vector == null) {
+                remove(id);
+                return;
+            }
+
+            Integer slot = slotById.get(id);
+            if (slot == null) {
+                slot = freeSlots.isEmpty() ? idBySlot.size() : freeSlots.pop();
+                if (slot == idBySlot.size()) idBySlot.add(id); else idBySlot.set(slot, id);
+                slotById.put(id, slot);
+            }
+            if (slot >= matrix.rows()) grow();
+            matrix.putRow(slot, Nd4j.create(vector));
+        }
+
+        synchronized void remove(String id) {
+            Integer slot = slotById.remove(id);
+            if (slot == null) return;
+            matrix.getRow(slot).assign(0);
+            idBySlot.set(slot, null);
+            freeSlots.push(slot);
+        }
+
+        // Gather the requested rows and score them with one matrix-vector product
+        synchronized Map<String, Double> score(float[] query, Collection<String> ids) {
+            Map<String, Double> scores = new HashMap<>();
+            if (query == null) return scores;
+
+            List<String> present = new ArrayList<>();
+            List<Integer> slots = new ArrayList<>();
+            for (String id : ids) {
+                Integer slot = slotById.get(id);
+                if (slot != null) {
+                    present.add(id);
+                    slots.add(slot);
+                }
+            }
+            if (present.isEmpty()) return scores;
+
+            INDArray rows = matrix.getRows(slots.stream().mapToInt(Integer::intValue).toArray());
+            INDArray similarities = rows.mmul(Nd4j.create(query).reshape(dimensions, 1));
+            for (int i = 0; i < present.size(); i++) {
+                scores.put(present.get(i), similarities.getDouble(i, 0));
+            }
+            return scores;
+        }
+
+        private void grow() {
+            INDArray larger = Nd4j.zeros(DataType.FLOAT, matrix.rows() * 2L, dimensions);
+            larger.get(NDArrayIndex.interval(0, matrix.rows()), NDArrayIndex.all()).assign(matrix);
+            matrix = larger;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.campustrack;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Throwaway database on the Mongo server at MONGO_TEST_URI (default localhost:27017).
+// Tests using it are skipped when no server answers.
+public final class MongoTestSupport implements AutoCloseable {
+
+    private final MongoClient client;
+    private final MongoTemplate mongoTemplate;
+
+    private MongoTestSupport(MongoClient client) {
+        this.client = client;
+        this.mongoTemplate = new MongoTemplate(client,
+                "campustrack_test_" + UUID.randomUUID().toString().replace("-", ""));
+    }
+
+    public static MongoTestSupport connectOrSkip() {
+        String uri = System.getenv().getOrDefault("MONGO_TEST_URI", "mongodb://localhost:27017");
+        MongoClient client = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(uri))
+                .applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(2, TimeUnit.SECONDS))
+                .build());
+        boolean reachable;
+        try {
+            client.getDatabase("admin").runCommand(new Document("ping", 1));
+            reachable = true;
+        } catch (RuntimeException e) {
+            client.close();
+            reachable = false;
+        }
+        assumeTrue(reachable, "No MongoDB at " + uri);
+        return new MongoTestSupport(client);
+    }
+
+    public MongoTemplate mongoTemplate() {
+        return mongoTemplate;
+    }
+
+    // Drop the test database and disconnect
+    @Override
+    public void close() {
+        try {
+            mongoTemplate.getDb().drop();
+        } finally {
+            client.close();
+        }
+    }
+}
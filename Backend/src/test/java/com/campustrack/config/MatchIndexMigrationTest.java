@@ -0,0 +1,114 @@
+package com.campustrack.config;
+
+import com.campustrack.MongoTestSupport;
+import com.campustrack.model.Match;
+import com.campustrack.model.Message;
+import com.campustrack.model.Notification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Duplicate pairs are merged before the unique matches index is built. Needs a MongoDB
+// server (see MongoTestSupport).
+class MatchIndexMigrationTest {
+
+    private MongoTestSupport mongo;
+    private MongoTemplate mongoTemplate;
+    private MatchIndexMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        mongo = MongoTestSupport.connectOrSkip();
+        mongoTemplate = mongo.mongoTemplate();
+        migration = new MatchIndexMigration();
+        ReflectionTestUtils.setField(migration, "mongoTemplate", mongoTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (mongo != null) mongo.close();
+    }
+
+    @Test
+    void mergesDuplicatesAndBuildsUniqueIndex() {
+        // Non-unique index of the same name, as created before matches were deduplicated
+        mongoTemplate.indexOps(Match.class).ensureIndex(new Index()
+                .on("lostItemId", Sort.Direction.ASC).on("foundItemId", Sort.Direction.ASC)
+                .named(MatchIndexMigration.INDEX_NAME));
+
+        Match oldest = match("lost-1", "found-1", "pending", "pending", Instant.parse("2024-01-01T00:00:00Z"));
+        Match claimed = match("lost-1", "found-1", "claimed", "pending", Instant.parse("2024-01-02T00:00:00Z"));
+        Match newest = match("lost-1", "found-1", "pending", "pending", Instant.parse("2024-01-03T00:00:00Z"));
+        Match other = match("lost-2", "found-1", "pending", "pending", Instant.parse("2024-01-01T00:00:00Z"));
+        message(oldest.getId());
+        message(newest.getId());
+        message(other.getId());
+        Notification notification = new Notification();
+        notification.setUserEmail("owner@example.com");
+        notification.setData(Map.of("matchId", newest.getId(), "type", "new_message"));
+        mongoTemplate.insert(notification);
+
+        migration.migrate();
+
+        Set<String> remaining = mongoTemplate.findAll(Match.class).stream().map(Match::getId).collect(Collectors.toSet());
+        assertEquals(Set.of(claimed.getId(), other.getId()), remaining);
+        List<String> messageMatchIds = mongoTemplate.findAll(Message.class).stream().map(Message::getMatchId).toList();
+        assertEquals(2, messageMatchIds.stream().filter(claimed.getId()::equals).count());
+        assertTrue(messageMatchIds.contains(other.getId()));
+        assertEquals(claimed.getId(), mongoTemplate.findAll(Notification.class).get(0).getData().get("matchId"));
+
+        IndexInfo index = mongoTemplate.indexOps(Match.class).getIndexInfo().stream()
+                .filter(info -> MatchIndexMigration.INDEX_NAME.equals(info.getName()))
+                .findFirst().orElseThrow();
+        assertTrue(index.isUnique());
+        assertThrows(DuplicateKeyException.class,
+                () -> match("lost-1", "found-1", "pending", "pending", Instant.now()));
+    }
+
+    @Test
+    void keepsOldestWhenNoneHasProgressedAndIsIdempotent() {
+        Match oldest = match("lost-1", "found-1", "pending", "pending", Instant.parse("2024-01-01T00:00:00Z"));
+        match("lost-1", "found-1", "pending", "pending", Instant.parse("2024-01-02T00:00:00Z"));
+        Match handedOver = match("lost-3", "found-3", "claimed", "pending", Instant.parse("2024-01-01T00:00:00Z"));
+        Match received = match("lost-3", "found-3", "completed", "received_by_owner", Instant.parse("2024-01-05T00:00:00Z"));
+
+        assertEquals(2, migration.removeDuplicatePairs());
+        migration.migrate();
+        assertEquals(0, migration.removeDuplicatePairs());
+
+        Set<String> remaining = mongoTemplate.findAll(Match.class).stream().map(Match::getId).collect(Collectors.toSet());
+        assertEquals(Set.of(oldest.getId(), received.getId()), remaining);
+        assertFalse(remaining.contains(handedOver.getId()));
+    }
+
+    private Match match(String lostItemId, String foundItemId, String status, String handoverStatus, Instant createdAt) {
+        Match match = new Match();
+        match.setLostItemId(lostItemId);
+        match.setFoundItemId(foundItemId);
+        match.setStatus(status);
+        match.setHandoverStatus(handoverStatus);
+        match.setCreatedAt(createdAt);
+        return mongoTemplate.insert(match);
+    }
+
+    private void message(String matchId) {
+        Message message = new Message();
+        message.setMatchId(matchId);
+        message.setMessage("hello");
+        mongoTemplate.insert(message);
+    }
+}
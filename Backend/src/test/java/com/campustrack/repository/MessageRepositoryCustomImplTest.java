@@ -0,0 +1,74 @@
+package com.campustrack.repository;
+
+import com.campustrack.MongoTestSupport;
+import com.campustrack.model.Message;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Reading a page of a conversation marks read only what that page has shown.
+// Needs a MongoDB server (see MongoTestSupport).
+class MessageRepositoryCustomImplTest {
+
+    private static final String MATCH_ID = "65f0c0ffee0000000000cafe";
+    private static final LocalDateTime START = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+    private MongoTestSupport mongo;
+    private MongoTemplate mongoTemplate;
+    private final MessageRepositoryCustomImpl repository = new MessageRepositoryCustomImpl();
+
+    @BeforeEach
+    void connect() {
+        mongo = MongoTestSupport.connectOrSkip();
+        mongoTemplate = mongo.mongoTemplate();
+        ReflectionTestUtils.setField(repository, "mongoTemplate", mongoTemplate);
+    }
+
+    @AfterEach
+    void dropDatabase() {
+        if (mongo != null) mongo.close();
+    }
+
+    @Test
+    void messagesAfterTheLastOneShownStayUnread() {
+        // Two messages share a timestamp, so the id decides which side of the page end they are on
+        List<Message> messages = new ArrayList<>();
+        messages.add(store("b@example.com", START));
+        messages.add(store("b@example.com", START.plusSeconds(1)));
+        messages.add(store("b@example.com", START.plusSeconds(1)));
+        messages.add(store("b@example.com", START.plusSeconds(2)));
+        messages.add(store("a@example.com", START.plusSeconds(3)));
+        Message lastShown = messages.get(1);
+
+        long marked = repository.markConversationReadUpTo(MATCH_ID, "b@example.com",
+                lastShown.getCreatedAt(), lastShown.getId());
+
+        assertEquals(2, marked);
+        assertEquals(List.of(true, true, false, false, false), readFlags(messages));
+    }
+
+    private Message store(String receiverEmail, LocalDateTime createdAt) {
+        Message message = new Message(MATCH_ID, "sender@example.com", "Sender", receiverEmail, "Receiver", "hi");
+        message.setId(new ObjectId().toHexString());
+        message.setCreatedAt(createdAt);
+        return mongoTemplate.insert(message);
+    }
+
+    private List<Boolean> readFlags(List<Message> messages) {
+        List<Boolean> flags = new ArrayList<>();
+        for (Message message : messages) {
+            flags.add(mongoTemplate.findById(message.getId(), Message.class).isRead());
+        }
+        return flags;
+    }
+}
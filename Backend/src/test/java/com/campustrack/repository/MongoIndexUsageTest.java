@@ -0,0 +1,215 @@
+package com.campustrack.repository;
+
+import com.campustrack.MongoTestSupport;
+import com.campustrack.config.MatchIndexMigration;
+import com.campustrack.model.*;
+import com.campustrack.service.MatchingPipeline;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Every query shape the repositories and listing endpoints send is explained against the
+// indexes declared on the models (plus the unique matches index from MatchIndexMigration).
+// No winning plan may contain a COLLSCAN, and first pages of sorted listings must take their
+// order from an index rather than a blocking SORT. Needs a MongoDB server (see MongoTestSupport).
+class MongoIndexUsageTest {
+
+    private static final List<Class<?>> MODEL_TYPES = List.of(LostItem.class, FoundItem.class, Match.class,
+            Message.class, Notification.class, User.class, Contact.class, OutboxEmail.class);
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+    private static final Sort OLDEST_FIRST = Sort.by(Sort.Direction.ASC, "createdAt")
+            .and(Sort.by(Sort.Direction.ASC, "id"));
+    private static final String CURSOR = KeysetPager.cursorAt(Instant.now(), "65f0c0ffee0000000000beef");
+    private static final String ITEM_ID = "65f0c0ffee0000000000cafe";
+
+    private MongoTestSupport mongo;
+    private MongoTemplate mongoTemplate;
+    private final KeysetPager keysetPager = new KeysetPager();
+
+    @BeforeEach
+    void createIndexes() {
+        mongo = MongoTestSupport.connectOrSkip();
+        mongoTemplate = mongo.mongoTemplate();
+
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        IndexResolver resolver = IndexResolver.create(mappingContext);
+        for (Class<?> type : MODEL_TYPES) {
+            IndexOperations indexOps = mongoTemplate.indexOps(type);
+            resolver.resolveIndexFor(type).forEach(indexOps::ensureIndex);
+        }
+
+        MatchIndexMigration migration = new MatchIndexMigration();
+        ReflectionTestUtils.setField(migration, "mongoTemplate", mongoTemplate);
+        migration.migrate();
+    }
+
+    @AfterEach
+    void dropDatabase() {
+        if (mongo != null) mongo.close();
+    }
+
+    @Test
+    void itemListingsAndUserItemsUseIndexes() {
+        for (Class<?> type : List.of(LostItem.class, FoundItem.class)) {
+            assertSortedByIndex(type, new Query().with(NEWEST_FIRST));
+            assertIndexed(type, new Query(keysetPager.after(CURSOR, false)).with(NEWEST_FIRST));
+            assertSortedByIndex(type, Query.query(Criteria.where("userEmail").is("a@example.com"))
+                    .with(Sort.by(Sort.Direction.DESC, "createdAt")));
+            // MatchingPipeline sweeper
+            assertIndexed(type, Query.query(Criteria.where("matchingStatus")
+                    .in(MatchingPipeline.STATUS_QUEUED, MatchingPipeline.STATUS_RUNNING)));
+        }
+    }
+
+    @Test
+    void dashboardChartQueriesUseIndexes() {
+        // findChartItemsSince on both item repositories
+        LocalDate since = LocalDate.now().minusDays(6);
+        Instant reportedSince = Instant.now().minus(6, ChronoUnit.DAYS);
+        assertIndexed(LostItem.class, new Query(new Criteria().orOperator(
+                Criteria.where("dateLost").gte(since),
+                Criteria.where("dateLost").is(null).and("createdAt").gte(reportedSince))));
+        assertIndexed(FoundItem.class, new Query(new Criteria().orOperator(
+                Criteria.where("dateFound").gte(since),
+                Criteria.where("dateFound").is(null).and("createdAt").gte(reportedSince))));
+    }
+
+    @Test
+    void matchQueriesUseIndexes() {
+        assertSortedByIndex(Match.class, Query.query(Criteria.where("lostItemId").is(ITEM_ID))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt")));
+        assertSortedByIndex(Match.class, Query.query(Criteria.where("foundItemId").is(ITEM_ID))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt")));
+        assertIndexed(Match.class, Query.query(Criteria.where("lostItemId").in(ITEM_ID, "other")));
+        assertIndexed(Match.class, Query.query(Criteria.where("foundItemId").in(ITEM_ID, "other")));
+        // insertIfAbsent upsert filter
+        assertIndexed(Match.class, Query.query(Criteria.where("lostItemId").is(ITEM_ID).and("foundItemId").is("other")));
+    }
+
+    @Test
+    void messageQueriesUseIndexes() {
+        Criteria conversation = Criteria.where("matchId").is(ITEM_ID);
+        assertSortedByIndex(Message.class, Query.query(conversation).with(OLDEST_FIRST));
+        assertIndexed(Message.class, new Query(new Criteria().andOperator(conversation,
+                keysetPager.after(CURSOR, true))).with(OLDEST_FIRST));
+        assertSortedByIndex(Message.class, Query.query(Criteria.where("receiverEmail").is("a@example.com")
+                .and("read").is(false)).with(Sort.by(Sort.Direction.DESC, "createdAt")));
+        // markConversationReadUpTo
+        LocalDateTime lastCreatedAt = LocalDateTime.now();
+        assertIndexed(Message.class, Query.query(Criteria.where("matchId").is(ITEM_ID)
+                .and("receiverEmail").is("a@example.com").and("read").is(false)
+                .orOperator(Criteria.where("createdAt").lt(lastCreatedAt),
+                        Criteria.where("createdAt").is(lastCreatedAt).and("id").lte(new ObjectId(ITEM_ID)))));
+    }
+
+    @Test
+    void notificationQueriesUseIndexes() {
+        Criteria user = Criteria.where("userEmail").is("a@example.com");
+        assertSortedByIndex(Notification.class, Query.query(user).with(NEWEST_FIRST));
+        assertIndexed(Notification.class, new Query(new Criteria().andOperator(user,
+                keysetPager.after(CURSOR, false))).with(NEWEST_FIRST));
+        // markAllRead
+        assertIndexed(Notification.class, Query.query(Criteria.where("userEmail").is("a@example.com")
+                .and("isRead").is(false)));
+    }
+
+    @Test
+    void userQueriesUseIndexes() {
+        assertIndexed(User.class, Query.query(Criteria.where("email").is("a@example.com")));
+        assertIndexed(User.class, Query.query(Criteria.where("email").is("a@example.com").and("role").is("student")));
+        assertIndexed(User.class, Query.query(Criteria.where("role").is("staff")));
+        assertIndexed(User.class, Query.query(Criteria.where("resetPasswordToken").is("token")
+                .and("resetPasswordExpires").gt(Instant.now())));
+        // Head of the admin students/staff details pipeline ($match + $sort are planned like a find)
+        assertSortedByIndex(User.class, Query.query(Criteria.where("role").is("student")).with(NEWEST_FIRST));
+        assertIndexed(User.class, new Query(new Criteria().andOperator(Criteria.where("role").is("student"),
+                keysetPager.after(CURSOR, false))).with(NEWEST_FIRST));
+    }
+
+    @Test
+    void contactAndOutboxQueriesUseIndexes() {
+        assertSortedByIndex(Contact.class, new Query().with(NEWEST_FIRST));
+        assertIndexed(Contact.class, new Query(keysetPager.after(CURSOR, false)).with(NEWEST_FIRST));
+        assertIndexed(Contact.class, Query.query(Criteria.where("status").is("unread")));
+
+        // OutboxEmailRepositoryCustomImpl.claimDue
+        Instant now = Instant.now();
+        assertIndexed(OutboxEmail.class, new Query(new Criteria().orOperator(
+                Criteria.where("status").is("pending").and("nextAttemptAt").lte(now),
+                Criteria.where("status").is("sending").and("leaseExpiresAt").lte(now)))
+                .with(Sort.by("nextAttemptAt")));
+    }
+
+    private void assertIndexed(Class<?> type, Query query) {
+        List<String> stages = winningStages(explain(type, query));
+        assertFalse(stages.isEmpty(), "no winning plan for " + describe(type, query));
+        assertFalse(stages.contains("COLLSCAN"), "collection scan for " + describe(type, query) + ": " + stages);
+    }
+
+    private void assertSortedByIndex(Class<?> type, Query query) {
+        assertIndexed(type, query);
+        List<String> stages = winningStages(explain(type, query));
+        assertFalse(stages.contains("SORT"), "blocking sort for " + describe(type, query) + ": " + stages);
+    }
+
+    // Filter and sort mapped to field names the way MongoTemplate sends them
+    private Document explain(Class<?> type, Query query) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(type);
+        QueryMapper mapper = new QueryMapper(mongoTemplate.getConverter());
+        Document filter = mapper.getMappedObject(query.getQueryObject(), entity);
+        Document sort = mapper.getMappedSort(query.getSortObject(), entity);
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(type))
+                .find(filter).sort(sort).explain();
+    }
+
+    private String describe(Class<?> type, Query query) {
+        return type.getSimpleName() + " " + query;
+    }
+
+    // Stage names anywhere under a winningPlan; rejected plans are ignored
+    private static List<String> winningStages(Document explain) {
+        List<String> stages = new ArrayList<>();
+        collectStages(explain, false, stages);
+        return stages;
+    }
+
+    private static void collectStages(Object node, boolean inWinningPlan, List<String> stages) {
+        if (node instanceof Map<?, ?> map) {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if ("rejectedPlans".equals(entry.getKey())) continue;
+                boolean winning = inWinningPlan || "winningPlan".equals(entry.getKey());
+                if (winning && "stage".equals(entry.getKey()) && entry.getValue() instanceof String stage) {
+                    stages.add(stage);
+                }
+                collectStages(entry.getValue(), winning, stages);
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object item : list) collectStages(item, inWinningPlan, stages);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.campustrack.security;
+
+import com.campustrack.model.User;
+import com.campustrack.repository.UserRepository;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The principal cache must never serve a user document that was replaced by a write it saw
+class UserPrincipalCacheTest {
+
+    private static final String USER_ID = new ObjectId().toHexString();
+    private static final ConnectionDescription CONNECTION =
+            new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    private final AtomicReference<User> stored = new AtomicReference<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private Runnable duringLoad = () -> { };
+    private UserPrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserPrincipalCache();
+        ReflectionTestUtils.setField(cache, "userRepository", userRepository());
+        ReflectionTestUtils.setField(cache, "maxSize", 100);
+        ReflectionTestUtils.setField(cache, "ttlMs", 300_000L);
+        stored.set(user("student"));
+    }
+
+    @Test
+    void aLoadRacingAWriteIsNotCached() {
+        // The write and its eviction land after findById read the old document
+        duringLoad = () -> {
+            stored.set(user("admin"));
+            cache.evict(USER_ID);
+        };
+        assertEquals("student", cache.get(USER_ID).orElseThrow().getRole());
+
+        duringLoad = () -> { };
+        assertEquals("admin", cache.get(USER_ID).orElseThrow().getRole());
+        assertEquals("admin", cache.get(USER_ID).orElseThrow().getRole());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void templateUpdatesOnUsersEvictOnceTheyFinish() {
+        UserCacheCommandListener listener = new UserCacheCommandListener();
+        ReflectionTestUtils.setField(listener, "userPrincipalCache", cache);
+        cache.get(USER_ID);
+
+        stored.set(user("admin"));
+        BsonDocument update = new BsonDocument("update", new BsonString("users"))
+                .append("updates", new BsonArray(List.of(
+                        new BsonDocument("q", new BsonDocument("_id", new BsonObjectId(new ObjectId(USER_ID))))
+                                .append("u", new BsonDocument("$set", new BsonDocument("role", new BsonString("admin")))))));
+        listener.commandStarted(new CommandStartedEvent(null, 1L, 7, CONNECTION, "campustrack", "update", update));
+        assertEquals("student", cache.get(USER_ID).orElseThrow().getRole());
+
+        listener.commandSucceeded(new CommandSucceededEvent(null, 1L, 7, CONNECTION, "campustrack", "update",
+                new BsonDocument(), 1L));
+        assertEquals("admin", cache.get(USER_ID).orElseThrow().getRole());
+    }
+
+    @Test
+    void writesToOtherCollectionsLeaveTheCacheAlone() {
+        UserCacheCommandListener listener = new UserCacheCommandListener();
+        ReflectionTestUtils.setField(listener, "userPrincipalCache", cache);
+        cache.get(USER_ID);
+
+        BsonDocument update = new BsonDocument("update", new BsonString("notifications"))
+                .append("updates", new BsonArray());
+        listener.commandStarted(new CommandStartedEvent(null, 1L, 8, CONNECTION, "campustrack", "update", update));
+        listener.commandSucceeded(new CommandSucceededEvent(null, 1L, 8, CONNECTION, "campustrack", "update",
+                new BsonDocument(), 1L));
+        cache.get(USER_ID);
+
+        assertEquals(1, loads.get());
+    }
+
+    private static User user(String role) {
+        User user = new User();
+        user.setId(USER_ID);
+        user.setRole(role);
+        return user;
+    }
+
+    private UserRepository userRepository() {
+        return (UserRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{UserRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findById")) {
+                        loads.incrementAndGet();
+                        User user = stored.get();
+                        duringLoad.run();
+                        return Optional.of(user);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,138 @@
+package com.campustrack.service;
+
+import com.campustrack.model.FoundItem;
+import com.campustrack.model.LostItem;
+import com.campustrack.model.Match;
+import com.campustrack.repository.FoundItemRepository;
+import com.campustrack.repository.MatchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Category/date blocking in auto-matching: only pairs that pass the block gate can become matches.
+// Every found item below would score well above the notify threshold if it were scored.
+class AutoMatchServiceTest {
+
+    private static final LocalDate LOST_ON = LocalDate.of(2026, 3, 10);
+
+    private final List<FoundItem> foundItems = new ArrayList<>();
+    private final List<String> matchedFoundIds = new ArrayList<>();
+    private AutoMatchService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AutoMatchService();
+        ReflectionTestUtils.setField(service, "foundItemRepository", foundItemRepository());
+        ReflectionTestUtils.setField(service, "matchRepository", matchRepository());
+        ReflectionTestUtils.setField(service, "itemTokenIndex", new ItemTokenIndex());
+        ReflectionTestUtils.setField(service, "itemEmbeddingScorer", disabledEmbeddings());
+        ReflectionTestUtils.setField(service, "embeddingWeight", 0.5);
+        ReflectionTestUtils.setField(service, "embeddingGate", 0.75);
+        ReflectionTestUtils.setField(service, "dateWindowDays", 30L);
+        ReflectionTestUtils.setField(service, "crossBlockNameThreshold", 0.8);
+        ReflectionTestUtils.setField(service, "hnswCandidates", 50);
+    }
+
+    @Test
+    void pairsFromOtherCategoriesOrOutsideTheDateWindowAreDropped() {
+        // "black wallet" vs "black leather wallet": name similarity 0.67, above the old 0.3 gate
+        found("same-block", "black wallet", "Wallets", LOST_ON.plusDays(2));
+        found("other-category", "black wallet", "Bags", LOST_ON.plusDays(2));
+        found("outside-window", "black wallet", "Wallets", LOST_ON.plusDays(60));
+        found("no-category", "black wallet", null, LOST_ON.plusDays(2));
+        found("no-category-outside-window", "black wallet", null, LOST_ON.minusDays(45));
+
+        service.checkMatchesForLostItem(lostWallet());
+
+        assertEquals(List.of("no-category", "same-block"), sorted(matchedFoundIds));
+    }
+
+    @Test
+    void nearIdenticalNamesStillMatchAcrossBlocks() {
+        found("other-category", "black leather wallet", "Bags", LOST_ON.plusDays(2));
+        found("outside-window", "black leather wallet", "Wallets", LOST_ON.plusDays(90));
+
+        service.checkMatchesForLostItem(lostWallet());
+
+        assertEquals(List.of("other-category", "outside-window"), sorted(matchedFoundIds));
+    }
+
+    @Test
+    void theSamePairsMatchWhenTheCrossBlockThresholdIsLowered() {
+        // Shows the dropped pairs above are dropped by blocking and not by their score
+        ReflectionTestUtils.setField(service, "crossBlockNameThreshold", 0.3);
+        found("other-category", "black wallet", "Bags", LOST_ON.plusDays(2));
+        found("outside-window", "black wallet", "Wallets", LOST_ON.plusDays(60));
+
+        service.checkMatchesForLostItem(lostWallet());
+
+        assertEquals(List.of("other-category", "outside-window"), sorted(matchedFoundIds));
+    }
+
+    private LostItem lostWallet() {
+        LostItem lost = new LostItem();
+        lost.setId("lost-1");
+        lost.setItemName("black leather wallet");
+        lost.setItemDescription("lost near the library with student id card initials JS");
+        lost.setLocation("library");
+        lost.setItemCategory("Wallets");
+        lost.setIdentificationMark("initials JS");
+        lost.setDateLost(LOST_ON);
+        lost.setUserEmail("owner@example.com");
+        return lost;
+    }
+
+    private void found(String id, String name, String category, LocalDate dateFound) {
+        FoundItem found = new FoundItem();
+        found.setId(id);
+        found.setItemName(name);
+        found.setItemDescription("lost near the library with student id card initials JS");
+        found.setPlaceFound("library");
+        found.setCategory(category);
+        found.setDateFound(dateFound);
+        found.setUserEmail("finder@example.com");
+        foundItems.add(found);
+    }
+
+    private static List<String> sorted(List<String> ids) {
+        List<String> copy = new ArrayList<>(ids);
+        Collections.sort(copy);
+        return copy;
+    }
+
+    // The token index is not built, so candidates come from findAll
+    private FoundItemRepository foundItemRepository() {
+        return (FoundItemRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{FoundItemRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findAll") && args == null) return foundItems;
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    // Records each pair and reports it as already matched, so no notifications are sent
+    private MatchRepository matchRepository() {
+        return (MatchRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{MatchRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("insertIfAbsent")) {
+                        matchedFoundIds.add(((Match) args[0]).getFoundItemId());
+                        return Optional.empty();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private ItemEmbeddingScorer disabledEmbeddings() {
+        return (ItemEmbeddingScorer) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ItemEmbeddingScorer.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("isEnabled")) return false;
+                    if (method.getName().equals("nearestFoundItems")) return List.of();
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
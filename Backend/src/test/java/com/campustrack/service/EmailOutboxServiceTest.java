@@ -0,0 +1,291 @@
+package com.campustrack.service;
+
+import com.campustrack.model.OutboxEmail;
+import com.campustrack.repository.OutboxEmailRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessagePreparator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Dispatcher behaviour against a fake JavaMailSender and an in-memory outbox that claims
+// and releases emails the way OutboxEmailRepositoryCustomImpl does in Mongo
+class EmailOutboxServiceTest {
+
+    private final Map<String, OutboxEmail> store = new LinkedHashMap<>();
+    private FakeMailSender mailSender;
+    private EmailOutboxService service;
+
+    @BeforeEach
+    void setUp() {
+        mailSender = new FakeMailSender();
+        service = newService(mailSender);
+    }
+
+    @Test
+    void sendsDueEmailsInOneBatchAndMarksThemSent() throws Exception {
+        service.enqueue("a@example.com", "Subject A", "Body A");
+        service.enqueueHtml("admin@example.com", "b@example.com", "Subject B", "<p>B</p>");
+
+        service.dispatch();
+
+        assertEquals(1, mailSender.batches.size());
+        List<MimeMessage> batch = mailSender.batches.get(0);
+        assertEquals(2, batch.size());
+        assertEquals("Subject A", batch.get(0).getSubject());
+        assertEquals("a@example.com", batch.get(0).getAllRecipients()[0].toString());
+        assertEquals("admin@example.com", batch.get(1).getFrom()[0].toString());
+        for (OutboxEmail email : store.values()) {
+            assertEquals("sent", email.getStatus());
+            assertNotNull(email.getSentAt());
+            assertNull(email.getClaimToken());
+        }
+
+        service.dispatch();
+        assertEquals(1, mailSender.batches.size(), "sent emails must not be sent again");
+    }
+
+    @Test
+    void partialFailureRetriesOnlyTheFailedMessage() throws Exception {
+        service.enqueue("ok@example.com", "OK", "Body");
+        service.enqueue("bad@example.com", "Bad", "Body");
+        mailSender.failRecipient = "bad@example.com";
+
+        Instant before = Instant.now();
+        service.dispatch();
+
+        OutboxEmail ok = byRecipient("ok@example.com");
+        OutboxEmail bad = byRecipient("bad@example.com");
+        assertEquals("sent", ok.getStatus());
+        assertEquals("pending", bad.getStatus());
+        assertEquals(1, bad.getAttempts());
+        assertNotNull(bad.getLastError());
+        assertTrue(bad.getNextAttemptAt().isAfter(before.plusMillis(29_000)), "retry must back off");
+        assertNull(bad.getClaimToken());
+    }
+
+    @Test
+    void connectionFailureBacksOffAndGivesUpAfterMaxAttempts() {
+        service.enqueue("a@example.com", "Subject", "Body");
+        mailSender.connectionDown = true;
+
+        service.dispatch();
+        OutboxEmail email = byRecipient("a@example.com");
+        assertEquals("pending", email.getStatus());
+        assertEquals(1, email.getAttempts());
+
+        // Not due yet, so the next run leaves it alone
+        service.dispatch();
+        assertEquals(1, email.getAttempts());
+
+        email.setNextAttemptAt(Instant.now().minusSeconds(1));
+        service.dispatch();
+        assertEquals("failed", email.getStatus());
+        assertEquals(2, email.getAttempts());
+    }
+
+    @Test
+    void respectsPerMinuteCap() {
+        ReflectionTestUtils.setField(service, "maxPerMinute", 2);
+        for (int i = 0; i < 3; i++) {
+            service.enqueue("user" + i + "@example.com", "Subject", "Body");
+        }
+
+        service.dispatch();
+        service.dispatch();
+
+        assertEquals(2, mailSender.sentCount());
+        assertEquals(1, store.values().stream().filter(e -> "pending".equals(e.getStatus())).count());
+    }
+
+    @Test
+    void emailsClaimedByAnotherInstanceAreSkippedUntilTheLeaseExpires() {
+        service.enqueue("a@example.com", "Subject", "Body");
+        OutboxEmail email = byRecipient("a@example.com");
+        email.setStatus("sending");
+        email.setClaimToken("other-instance");
+        email.setLeaseExpiresAt(Instant.now().plusSeconds(60));
+
+        service.dispatch();
+        assertEquals(0, mailSender.sentCount());
+
+        // The other instance died mid-batch
+        email.setLeaseExpiresAt(Instant.now().minusSeconds(1));
+        service.dispatch();
+        assertEquals(1, mailSender.sentCount());
+        assertEquals("sent", email.getStatus());
+    }
+
+    @Test
+    void resultOfAnExpiredClaimDoesNotOverwriteTheNewClaim() {
+        service.enqueue("a@example.com", "Subject", "Body");
+        // Another instance takes the email over while this one is still sending
+        mailSender.duringSend = () -> {
+            OutboxEmail email = byRecipient("a@example.com");
+            email.setClaimToken("other-instance");
+            email.setLeaseExpiresAt(Instant.now().plusSeconds(60));
+        };
+
+        service.dispatch();
+
+        OutboxEmail email = byRecipient("a@example.com");
+        assertEquals("sending", email.getStatus());
+        assertEquals("other-instance", email.getClaimToken());
+    }
+
+    private EmailOutboxService newService(FakeMailSender sender) {
+        EmailOutboxService outbox = new EmailOutboxService();
+        ReflectionTestUtils.setField(outbox, "outboxEmailRepository", inMemoryRepository());
+        ReflectionTestUtils.setField(outbox, "mailSender", sender);
+        ReflectionTestUtils.setField(outbox, "defaultFrom", "noreply@example.com");
+        ReflectionTestUtils.setField(outbox, "batchSize", 20);
+        ReflectionTestUtils.setField(outbox, "maxPerMinute", 60);
+        ReflectionTestUtils.setField(outbox, "maxAttempts", 2);
+        ReflectionTestUtils.setField(outbox, "initialBackoffMs", 30_000L);
+        ReflectionTestUtils.setField(outbox, "maxBackoffMs", 3_600_000L);
+        ReflectionTestUtils.setField(outbox, "leaseMs", 300_000L);
+        return outbox;
+    }
+
+    private OutboxEmail byRecipient(String to) {
+        return store.values().stream().filter(e -> to.equals(e.getTo())).findFirst().orElseThrow();
+    }
+
+    // Only the methods the service uses; claimed emails are handed out as copies, like documents
+    // read back from Mongo, and written back only while the claim token still matches
+    private OutboxEmailRepository inMemoryRepository() {
+        return (OutboxEmailRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{OutboxEmailRepository.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "save": {
+                            OutboxEmail email = (OutboxEmail) args[0];
+                            if (email.getId() == null) email.setId(UUID.randomUUID().toString());
+                            store.put(email.getId(), email);
+                            return email;
+                        }
+                        case "claimDue": {
+                            Instant now = (Instant) args[0];
+                            List<OutboxEmail> due = store.values().stream()
+                                    .filter(e -> ("pending".equals(e.getStatus()) && !e.getNextAttemptAt().isAfter(now))
+                                            || ("sending".equals(e.getStatus()) && !e.getLeaseExpiresAt().isAfter(now)))
+                                    .sorted(Comparator.comparing(OutboxEmail::getNextAttemptAt))
+                                    .limit((Integer) args[3])
+                                    .toList();
+                            List<OutboxEmail> claimed = new ArrayList<>();
+                            for (OutboxEmail email : due) {
+                                email.setStatus("sending");
+                                email.setClaimToken((String) args[2]);
+                                email.setLeaseExpiresAt((Instant) args[1]);
+                                claimed.add(copy(email));
+                            }
+                            return claimed;
+                        }
+                        case "complete": {
+                            OutboxEmail result = (OutboxEmail) args[0];
+                            OutboxEmail stored = store.get(result.getId());
+                            if (!Objects.equals(stored.getClaimToken(), result.getClaimToken())) return false;
+                            stored.setStatus(result.getStatus());
+                            stored.setAttempts(result.getAttempts());
+                            stored.setNextAttemptAt(result.getNextAttemptAt());
+                            stored.setLastError(result.getLastError());
+                            stored.setSentAt(result.getSentAt());
+                            stored.setClaimToken(null);
+                            stored.setLeaseExpiresAt(null);
+                            return true;
+                        }
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static OutboxEmail copy(OutboxEmail email) {
+        OutboxEmail copy = new OutboxEmail();
+        copy.setId(email.getId());
+        copy.setFrom(email.getFrom());
+        copy.setTo(email.getTo());
+        copy.setReplyTo(email.getReplyTo());
+        copy.setSubject(email.getSubject());
+        copy.setBody(email.getBody());
+        copy.setHtml(email.isHtml());
+        copy.setStatus(email.getStatus());
+        copy.setAttempts(email.getAttempts());
+        copy.setNextAttemptAt(email.getNextAttemptAt());
+        copy.setLastError(email.getLastError());
+        copy.setSentAt(email.getSentAt());
+        copy.setClaimToken(email.getClaimToken());
+        copy.setLeaseExpiresAt(email.getLeaseExpiresAt());
+        return copy;
+    }
+
+    // Records every batch instead of talking to an SMTP server
+    private static class FakeMailSender implements JavaMailSender {
+        final List<List<MimeMessage>> batches = new ArrayList<>();
+        final Session session = Session.getInstance(new Properties());
+        boolean connectionDown;
+        String failRecipient;
+        Runnable duringSend;
+
+        @Override
+        public MimeMessage createMimeMessage() {
+            return new MimeMessage(session);
+        }
+
+        @Override
+        public MimeMessage createMimeMessage(InputStream contentStream) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void send(MimeMessagePreparator... mimeMessagePreparators) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void send(SimpleMailMessage... simpleMessages) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void send(MimeMessage... mimeMessages) {
+            if (duringSend != null) duringSend.run();
+            if (connectionDown) throw new MailSendException("Connection refused");
+
+            Map<Object, Exception> failures = new LinkedHashMap<>();
+            List<MimeMessage> sent = new ArrayList<>();
+            for (MimeMessage message : mimeMessages) {
+                if (failRecipient != null && failRecipient.equals(recipient(message))) {
+                    failures.put(message, new MessagingException("550 mailbox unavailable"));
+                } else {
+                    sent.add(message);
+                }
+            }
+            batches.add(sent);
+            if (!failures.isEmpty()) throw new MailSendException(failures);
+        }
+
+        int sentCount() {
+            return batches.stream().mapToInt(List::size).sum();
+        }
+
+        private static String recipient(MimeMessage message) {
+            try {
+                return message.getAllRecipients()[0].toString();
+            } catch (MessagingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
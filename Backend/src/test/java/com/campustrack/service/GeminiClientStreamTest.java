@@ -0,0 +1,155 @@
+package com.campustrack.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Streaming against a local fake Gemini that stalls or trickles mid-body: the deadlines and
+// cancellation must end the stream and give the bulkhead permit back.
+class GeminiClientStreamTest {
+
+    private static final String CHUNK = "data: {\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"Hello\"}]}}]}\n\n";
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<String> chunks = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private GeminiClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/stall", exchange -> respond(exchange, () -> release.await()));
+        server.createContext("/trickle", exchange -> respond(exchange, () -> {
+            while (!release.await(100, TimeUnit.MILLISECONDS)) {
+                exchange.getResponseBody().write(CHUNK.getBytes(StandardCharsets.UTF_8));
+                exchange.getResponseBody().flush();
+            }
+        }));
+        server.createContext("/complete", exchange -> respond(exchange, () -> { }));
+        server.start();
+
+        client = new GeminiClient(1, 5, 30000);
+        ReflectionTestUtils.setField(client, "geminiHttpClient", HttpClient.newHttpClient());
+        ReflectionTestUtils.setField(client, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(client, "apiKey", "test-key");
+        ReflectionTestUtils.setField(client, "model", "test-model");
+        ReflectionTestUtils.setField(client, "readTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(client, "bulkheadMaxWaitMs", 0L);
+        ReflectionTestUtils.setField(client, "streamIdleTimeoutMs", 300L);
+        ReflectionTestUtils.setField(client, "streamTotalTimeoutMs", 3000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void aCompleteStreamIsRelayed() {
+        useEndpoint("complete");
+
+        client.streamGenerateContent("hi", chunks::add, new GeminiClient.Cancellation());
+
+        assertEquals(List.of("Hello"), chunks);
+        assertEquals(1, availablePermits());
+    }
+
+    @Test
+    void aStreamThatStallsMidBodyEndsAtTheIdleTimeout() {
+        useEndpoint("stall");
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> client.streamGenerateContent("hi", chunks::add, new GeminiClient.Cancellation()));
+
+        assertEquals("Gemini stream stalled", e.getMessage());
+        assertEquals(List.of("Hello"), chunks);
+        assertEquals(1, availablePermits());
+    }
+
+    @Test
+    void aStreamThatKeepsTricklingEndsAtTheTotalTimeout() {
+        useEndpoint("trickle");
+        ReflectionTestUtils.setField(client, "streamIdleTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(client, "streamTotalTimeoutMs", 1000L);
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> client.streamGenerateContent("hi", chunks::add, new GeminiClient.Cancellation()));
+
+        // Lines keep arriving well within the idle timeout, so only the total deadline ends it
+        assertEquals("Gemini stream exceeded its total time", e.getMessage());
+        assertTrue(chunks.size() > 2);
+        assertEquals(1, availablePermits());
+    }
+
+    @Test
+    void cancellingFromAnotherThreadEndsAStalledStream() throws InterruptedException {
+        useEndpoint("stall");
+        ReflectionTestUtils.setField(client, "streamIdleTimeoutMs", 30_000L);
+        ReflectionTestUtils.setField(client, "streamTotalTimeoutMs", 30_000L);
+        GeminiClient.Cancellation cancellation = new GeminiClient.Cancellation();
+
+        Thread canceller = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException ignored) {
+            }
+            cancellation.cancel();
+        });
+        canceller.start();
+        long start = System.currentTimeMillis();
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> client.streamGenerateContent("hi", chunks::add, cancellation));
+        canceller.join();
+
+        assertEquals("AI stream cancelled", e.getMessage());
+        assertTrue(System.currentTimeMillis() - start < 10_000, "ended by the cancel");
+        assertEquals(1, availablePermits());
+    }
+
+    private void useEndpoint(String path) {
+        ReflectionTestUtils.setField(client, "baseUrl", "http://127.0.0.1:" + server.getAddress().getPort() + "/" + path);
+    }
+
+    private int availablePermits() {
+        return ((Semaphore) ReflectionTestUtils.getField(client, "bulkhead")).availablePermits();
+    }
+
+    // Sends the headers and one chunk, then runs rest before closing the body
+    private static void respond(HttpExchange exchange, Body rest) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(CHUNK.getBytes(StandardCharsets.UTF_8));
+            body.flush();
+            rest.write();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException ignored) {
+            // The client cancelled the stream
+        }
+    }
+
+    private interface Body {
+        void write() throws IOException, InterruptedException;
+    }
+}
@@ -0,0 +1,137 @@
+package com.campustrack.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Recall of the HNSW graph against an exact cosine top-k over the same random unit vectors
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 32;
+    private static final int ITEMS = 2000;
+    private static final int QUERIES = 100;
+    private static final int K = 10;
+    private static final double MIN_RECALL = 0.9;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void searchRecallMatchesBruteForce() {
+        Random random = new Random(42);
+        Map<String, float[]> vectors = randomVectors(random, ITEMS);
+        HnswIndex index = build(vectors);
+
+        double recall = recall(index, vectors, randomVectors(random, QUERIES).values());
+        assertTrue(recall >= MIN_RECALL, "recall@" + K + " was " + recall);
+    }
+
+    @Test
+    void deletedItemsAreNotReturnedAndRecallHolds() {
+        Random random = new Random(7);
+        Map<String, float[]> vectors = randomVectors(random, ITEMS);
+        HnswIndex index = build(vectors);
+
+        // Tombstone a fifth of the items; they stay in the graph until the next save
+        Iterator<String> ids = vectors.keySet().iterator();
+        for (int i = 0; i < ITEMS / 5; i++) {
+            index.delete(ids.next());
+            ids.remove();
+        }
+        assertEquals(vectors.size(), index.size());
+
+        Collection<float[]> queries = randomVectors(random, QUERIES).values();
+        for (float[] query : queries) {
+            for (String id : index.search(query, K)) {
+                assertTrue(vectors.containsKey(id), "deleted item " + id + " returned");
+            }
+        }
+        double recall = recall(index, vectors, queries);
+        assertTrue(recall >= MIN_RECALL, "recall@" + K + " after deletes was " + recall);
+    }
+
+    @Test
+    void recallSurvivesSaveAndLoad() throws Exception {
+        Random random = new Random(11);
+        Map<String, float[]> vectors = randomVectors(random, ITEMS);
+        HnswIndex index = build(vectors);
+        Iterator<String> ids = vectors.keySet().iterator();
+        for (int i = 0; i < ITEMS / 10; i++) {
+            index.delete(ids.next());
+            ids.remove();
+        }
+
+        Path file = tempDir.resolve("items.hnsw");
+        index.save(file);
+        assertFalse(index.isDirty());
+
+        HnswIndex loaded = HnswIndex.load(file, DIMENSIONS, 16, 100, 64);
+        assertNotNull(loaded);
+        assertEquals(vectors.keySet(), loaded.itemIds());
+
+        double recall = recall(loaded, vectors, randomVectors(random, QUERIES).values());
+        assertTrue(recall >= MIN_RECALL, "recall@" + K + " after reload was " + recall);
+    }
+
+    @Test
+    void reinsertReplacesVector() {
+        HnswIndex index = new HnswIndex(2, 16, 100, 64);
+        index.insert("a", new float[]{1f, 0f});
+        index.insert("b", new float[]{0f, 1f});
+        index.insert("a", new float[]{0f, 1f});
+
+        assertEquals(2, index.size());
+        assertArrayEquals(new float[]{0f, 1f}, index.vector("a"));
+        assertEquals(Set.of("a", "b"), new HashSet<>(index.search(new float[]{0f, 1f}, 2)));
+    }
+
+    private static HnswIndex build(Map<String, float[]> vectors) {
+        HnswIndex index = new HnswIndex(DIMENSIONS, 16, 100, 64);
+        vectors.forEach(index::insert);
+        return index;
+    }
+
+    // Fraction of the exact top-k that the index returned, averaged over the queries
+    private static double recall(HnswIndex index, Map<String, float[]> vectors, Collection<float[]> queries) {
+        int found = 0;
+        for (float[] query : queries) {
+            Set<String> exact = new HashSet<>(bruteForce(vectors, query, K));
+            for (String id : index.search(query, K)) {
+                if (exact.contains(id)) found++;
+            }
+        }
+        return (double) found / (queries.size() * K);
+    }
+
+    private static List<String> bruteForce(Map<String, float[]> vectors, float[] query, int k) {
+        List<String> ids = new ArrayList<>(vectors.keySet());
+        ids.sort(Comparator.comparingDouble((String id) -> dot(vectors.get(id), query)).reversed());
+        return ids.subList(0, Math.min(k, ids.size()));
+    }
+
+    private static Map<String, float[]> randomVectors(Random random, int count) {
+        Map<String, float[]> vectors = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            float[] vector = new float[DIMENSIONS];
+            double norm = 0;
+            for (int d = 0; d < DIMENSIONS; d++) {
+                vector[d] = (float) random.nextGaussian();
+                norm += vector[d] * vector[d];
+            }
+            norm = Math.sqrt(norm);
+            for (int d = 0; d < DIMENSIONS; d++) vector[d] /= norm;
+            vectors.put("item-" + i, vector);
+        }
+        return vectors;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double dot = 0;
+        for (int i = 0; i < a.length; i++) dot += a[i] * b[i];
+        return dot;
+    }
+}
@@ -0,0 +1,33 @@
+import { API_BASE_URL } from "../config";
+
+// GET one page of /admin/students-details or /admin/staff-details
+async function fetchDetailsPage(path, params) {
+  const token = localStorage.getItem("token");
+  const query = new URLSearchParams(params).toString();
+  const response = await fetch(`${API_BASE_URL}/admin/${path}?${query}`, {
+    headers: {
+      "Content-Type": "application/json",
+      Authorization: `Bearer ${token}`,
+    },
+  });
+  if (!response.ok) {
+    const error = new Error(`HTTP ${response.status}`);
+    error.status = response.status;
+    throw error;
+  }
+  return response.json();
+}
+
+// One page of users of a details listing, newest first; pass the previous page's nextCursor
+// to get the next one. key is the array field of the response ("students" or "staff").
+export async function fetchUserDetailsPage(path, key, cursor = null, limit = 50) {
+  const params = cursor ? { limit, cursor } : { limit };
+  const data = await fetchDetailsPage(path, params);
+  return { users: data[key] || [], nextCursor: data.nextCursor || null };
+}
+
+// A single user of a details listing with their lost and found items, or null
+export async function fetchUserDetails(path, key, userId) {
+  const data = await fetchDetailsPage(path, { userId });
+  return (data[key] || [])[0] || null;
+}
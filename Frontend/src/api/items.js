@@ -0,0 +1,31 @@
+import axios from "axios";
+import { API_BASE_URL } from "../config";
+
+// One page of a listing ("lost-items" or "found-items"), newest first; pass the previous
+// page's nextCursor to get the next one
+export async function fetchItemsPage(path, cursor = null, limit = 50) {
+  const token = localStorage.getItem("token");
+  const { data } = await axios.get(`${API_BASE_URL}/${path}`, {
+    headers: { Authorization: `Bearer ${token}` },
+    params: cursor ? { limit, cursor } : { limit },
+  });
+  return { items: data.items || [], nextCursor: data.nextCursor || null };
+}
+
+// Every item of a paged listing ("lost-items" or "found-items"), newest first,
+// following nextCursor page by page
+export async function fetchAllItems(path) {
+  const token = localStorage.getItem("token");
+  const items = [];
+  let cursor = null;
+  do {
+    const params = cursor ? { limit: 200, cursor } : { limit: 200 };
+    const { data } = await axios.get(`${API_BASE_URL}/${path}`, {
+      headers: { Authorization: `Bearer ${token}` },
+      params,
+    });
+    items.push(...(data.items || []));
+    cursor = data.nextCursor;
+  } while (cursor);
+  return items;
+}
@@ -0,0 +1,22 @@
+import { API_BASE_URL } from "../config";
+
+// Opens the server push stream and calls onNotification for every new notification.
+// EventSource cannot send headers, so the token goes in the query string.
+// Returns a function that closes the stream.
+export function subscribeToNotifications(onNotification) {
+  const token = localStorage.getItem("token");
+  if (!token) return () => {};
+
+  const events = new EventSource(
+    `${API_BASE_URL}/notifications/stream?token=${encodeURIComponent(token)}`
+  );
+  events.addEventListener("notification", (event) => {
+    try {
+      onNotification(JSON.parse(event.data));
+    } catch (error) {
+      console.error("Invalid notification event:", error);
+    }
+  });
+
+  return () => events.close();
+}
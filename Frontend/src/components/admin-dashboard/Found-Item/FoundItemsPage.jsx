@@ -3,6 +3,7 @@ import axios from "axios";
 import { FaTrash } from "react-icons/fa";
 import toast, { Toaster } from "react-hot-toast";
 import { API_BASE_URL } from "../../../config";
+import { fetchAllItems } from "../../../api/items";
 import noitems from "../../../assets/admin-dashboard/noitems.png";
 import Loader from "../../common/Loader/Loader";
 import FoundItemModal from "./FoundItemModal";
@@ -24,10 +25,9 @@ const FoundItemsPage = () => {
         const token = localStorage.getItem("token");
         if (!token) throw new Error("Admin token not found");
 
-        const config = { headers: { Authorization: `Bearer ${token}` } };
-        const res = await axios.get(`${API_BASE_URL}/found-items`, config);
-        setFoundItems(res.data.items || []);
-        setFilteredItems(res.data.items || []);
+        const items = await fetchAllItems("found-items");
+        setFoundItems(items);
+        setFilteredItems(items);
       } catch (err) {
         console.error("Error fetching found items:", err.response?.data || err.message);
         setError(err.response?.data?.message || "Failed to fetch found items");
@@ -1,7 +1,6 @@
 import React, { useState, useEffect } from "react";
-import axios from "axios";
 import { FaRobot } from "react-icons/fa";
-import { API_BASE_URL } from "../../../config";
+import { fetchItemsPage } from "../../../api/items";
 import MatchItemPage from "./MatchItemPage";
 import Loader from "../../common/Loader/Loader";
 import Button from "./Button";
@@ -9,6 +8,9 @@ import Button from "./Button";
 const AdminDashboardPage = () => {
   const [lostItems, setLostItems] = useState([]);
   const [foundItems, setFoundItems] = useState([]);
+  const [lostCursor, setLostCursor] = useState(null);
+  const [foundCursor, setFoundCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState("");
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState("");
   const [showMatches, setShowMatches] = useState(false);
@@ -19,15 +21,16 @@ const AdminDashboardPage = () => {
         const token = localStorage.getItem("token");
         if (!token) throw new Error("Admin token not found");
 
-        const config = { headers: { Authorization: `Bearer ${token}` } };
-
-        const [lostRes, foundRes] = await Promise.all([
-          axios.get(`${API_BASE_URL}/lost-items`, config),
-          axios.get(`${API_BASE_URL}/found-items`, config),
+        // First page of each table; older items are loaded on demand
+        const [lost, found] = await Promise.all([
+          fetchItemsPage("lost-items"),
+          fetchItemsPage("found-items"),
         ]);
 
-        setLostItems(lostRes.data.items || []);
-        setFoundItems(foundRes.data.items || []);
+        setLostItems(lost.items);
+        setLostCursor(lost.nextCursor);
+        setFoundItems(found.items);
+        setFoundCursor(found.nextCursor);
       } catch (err) {
         console.error(err);
         setError(err.response?.data?.message || "Failed to fetch items");
@@ -39,6 +42,42 @@ const AdminDashboardPage = () => {
     fetchItems();
   }, []);
 
+  const loadMore = async (path) => {
+    const lost = path === "lost-items";
+    try {
+      setLoadingMore(path);
+      const page = await fetchItemsPage(path, lost ? lostCursor : foundCursor);
+      const append = (current) => {
+        const ids = new Set(current.map((item) => item.id));
+        return [...current, ...page.items.filter((item) => !ids.has(item.id))];
+      };
+      if (lost) {
+        setLostItems(append);
+        setLostCursor(page.nextCursor);
+      } else {
+        setFoundItems(append);
+        setFoundCursor(page.nextCursor);
+      }
+    } catch (err) {
+      console.error("Failed to load more items:", err);
+    } finally {
+      setLoadingMore("");
+    }
+  };
+
+  const loadMoreButton = (path, cursor) =>
+    cursor && (
+      <div className="flex justify-center mt-4">
+        <button
+          onClick={() => loadMore(path)}
+          disabled={loadingMore === path}
+          className="px-6 py-2 rounded-lg font-semibold bg-gray-700 text-gray-300 hover:bg-gray-600 transition disabled:opacity-50"
+        >
+          {loadingMore === path ? "Loading..." : "Load more"}
+        </button>
+      </div>
+    );
+
   const handleAIAnalyze = () => {
     setShowMatches(true);
   };
@@ -103,6 +142,7 @@ const AdminDashboardPage = () => {
               ))}
             </tbody>
           </table>
+          {loadMoreButton("lost-items", lostCursor)}
         </div>
 
         {/* Found Items */}
@@ -140,6 +180,7 @@ const AdminDashboardPage = () => {
               ))}
             </tbody>
           </table>
+          {loadMoreButton("found-items", foundCursor)}
         </div>
       </div>
     </div>
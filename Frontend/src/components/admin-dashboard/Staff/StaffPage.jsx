@@ -1,7 +1,6 @@
 import React, { useEffect, useState } from "react";
 import { useNavigate } from "react-router-dom";
-import axios from "axios";
-import { API_BASE_URL } from "../../../config";
+import { fetchUserDetailsPage } from "../../../api/admin";
 import { FaUserTie, FaEnvelope, FaPhoneAlt } from "react-icons/fa";
 import { MdArrowForward } from "react-icons/md";
 import Loader from "../../common/Loader/Loader";
@@ -11,8 +10,8 @@ import noperson from "../../../assets/admin-dashboard/noperson.png";
 
 const StaffPage = () => {
   const [staff, setStaff] = useState([]);
-  const [lostItems, setLostItems] = useState([]);
-  const [foundItems, setFoundItems] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState("");
   const [searchTerm, setSearchTerm] = useState("");
@@ -22,41 +21,14 @@ const StaffPage = () => {
   useEffect(() => {
     const fetchData = async () => {
       try {
-        const token = localStorage.getItem("token");
-        const config = {
-          headers: {
-            "Content-Type": "application/json",
-            Authorization: `Bearer ${token}`,
-          },
-        };
-
-        // Fetch staff and items in parallel
-        const [staffRes, lostRes, foundRes] = await Promise.all([
-          fetch(`${API_BASE_URL}/admin/staff-details`, config),
-          axios.get(`${API_BASE_URL}/lost-items`, { headers: config.headers }),
-          axios.get(`${API_BASE_URL}/found-items`, { headers: config.headers })
-        ]);
-
-        if (staffRes.status === 401) {
-          setError("Unauthorized access. Please login as admin.");
-          setLoading(false);
-          return;
-        }
-
-        const staffData = await staffRes.json();
-
-        if (Array.isArray(staffData.staff)) {
-          setStaff(staffData.staff);
-        } else {
-          setStaff([]);
-          setError("No staff data found");
-        }
-
-        setLostItems(lostRes.data.items || []);
-        setFoundItems(foundRes.data.items || []);
+        // Each staff member comes with their lost and found items; one page at a time,
+        // more are loaded on demand
+        addStaff(await fetchUserDetailsPage("staff-details", "staff"));
       } catch (err) {
         console.error("Error fetching data:", err);
-        setError("Failed to load staff data");
+        setError(err.status === 401
+          ? "Unauthorized access. Please login as admin."
+          : "Failed to load staff data");
       } finally {
         setLoading(false);
       }
@@ -65,10 +37,29 @@ const StaffPage = () => {
     fetchData();
   }, []);
 
+  const addStaff = (page) => {
+    setStaff((current) => {
+      const ids = new Set(current.map((member) => member.id));
+      return [...current, ...page.users.filter((member) => !ids.has(member.id))];
+    });
+    setNextCursor(page.nextCursor);
+  };
+
+  const loadMore = async () => {
+    try {
+      setLoadingMore(true);
+      addStaff(await fetchUserDetailsPage("staff-details", "staff", nextCursor));
+    } catch (err) {
+      console.error("Error fetching more staff:", err);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   // Count items for each staff member
-  const getItemCounts = (staffEmail) => {
-    const lostCount = lostItems.filter(item => item.userEmail === staffEmail).length;
-    const foundCount = foundItems.filter(item => item.userEmail === staffEmail).length;
+  const getItemCounts = (member) => {
+    const lostCount = (member.lostItems || []).length;
+    const foundCount = (member.foundItems || []).length;
     return { lostCount, foundCount };
   };
 
@@ -115,7 +106,7 @@ const StaffPage = () => {
           </div>
         ) : (
           filteredStaff.map((member) => {
-            const { lostCount, foundCount } = getItemCounts(member.email);
+            const { lostCount, foundCount } = getItemCounts(member);
             return (
             <div
               key={member._id}
@@ -224,6 +215,17 @@ const StaffPage = () => {
           })
         )}
       </div>
+      {nextCursor && (
+        <div className="flex justify-center mt-6">
+          <button
+            onClick={loadMore}
+            disabled={loadingMore}
+            className="px-6 py-2 rounded-lg font-semibold bg-gray-700 text-gray-300 hover:bg-gray-600 transition disabled:opacity-50"
+          >
+            {loadingMore ? "Loading..." : "Load more"}
+          </button>
+        </div>
+      )}
       </div>
     </div>
   );
@@ -2,6 +2,7 @@ import React, { useEffect, useState, useRef } from "react";
 import { useParams, useNavigate, useLocation } from "react-router-dom";
 import axios from "axios";
 import { API_BASE_URL } from "../../../config";
+import { fetchUserDetails } from "../../../api/admin";
 import {
   FaEnvelope,
   FaPhoneAlt,
@@ -39,21 +40,8 @@ const StaffProfile = () => {
           }
         };
 
-        // Fetch staff details
-        const staffRes = await fetch(`${API_BASE_URL}/admin/staff-details`, {
-          headers: config.headers,
-        });
-
-        const staffData = await staffRes.json();
-
-        if (!Array.isArray(staffData.staff)) {
-          setError("No staff data found");
-          setLoading(false);
-          return;
-        }
-
-        // Find staff by id (backend might return id or _id)
-        const targetStaff = staffData.staff.find((s) => s.id === id || s._id === id);
+        // Fetch this staff together with their lost and found items
+        const targetStaff = await fetchUserDetails("staff-details", "staff", id);
 
         if (!targetStaff) {
           setError("Staff not found");
@@ -62,23 +50,8 @@ const StaffProfile = () => {
         }
 
         setStaff(targetStaff);
-
-        // Fetch all lost and found items
-        const [lostRes, foundRes] = await Promise.all([
-          axios.get(`${API_BASE_URL}/lost-items`, config),
-          axios.get(`${API_BASE_URL}/found-items`, config)
-        ]);
-
-        // Filter items for this specific staff member by email
-        const userLostItems = (lostRes.data.items || []).filter(
-          item => item.userEmail === targetStaff.email
-        );
-        const userFoundItems = (foundRes.data.items || []).filter(
-          item => item.userEmail === targetStaff.email
-        );
-
-        setLostItems(userLostItems);
-        setFoundItems(userFoundItems);
+        setLostItems(targetStaff.lostItems || []);
+        setFoundItems(targetStaff.foundItems || []);
 
         // Try to fetch matches
         try {
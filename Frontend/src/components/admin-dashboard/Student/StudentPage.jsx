@@ -1,8 +1,7 @@
 import React, { useEffect, useState } from "react";
-import { API_BASE_URL } from "../../../config";
+import { fetchUserDetailsPage } from "../../../api/admin";
 import { FaEnvelope, FaPhoneAlt, FaUniversity } from "react-icons/fa";
 import { MdArrowForward } from "react-icons/md";
-import axios from "axios";
 import noperson from "../../../assets/admin-dashboard/noperson.png";
 import Loader from "../../common/Loader/Loader";
 import SearchBar from "../../common/SearchBar";
@@ -11,62 +10,42 @@ import { useNavigate } from "react-router-dom";
 const StudentPage = () => {
   const [students, setStudents] = useState([]);
   const [studentItemCounts, setStudentItemCounts] = useState({});
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState("");
   const [searchTerm, setSearchTerm] = useState("");
   const navigate = useNavigate();
 
+  // Each student comes with their lost and found items
+  const addStudents = (page) => {
+    setStudents((current) => {
+      const ids = new Set(current.map((student) => student.id));
+      return [...current, ...page.users.filter((student) => !ids.has(student.id))];
+    });
+    setStudentItemCounts((current) => {
+      const counts = { ...current };
+      page.users.forEach(student => {
+        counts[student.id] = {
+          lost: (student.lostItems || []).length,
+          found: (student.foundItems || []).length,
+        };
+      });
+      return counts;
+    });
+    setNextCursor(page.nextCursor);
+  };
+
   useEffect(() => {
+    // One page at a time; more students are loaded on demand
     const fetchStudents = async () => {
       try {
-        const token = localStorage.getItem("token");
-        const config = { headers: { Authorization: `Bearer ${token}` } };
-
-        // Fetch students
-        const studentsRes = await fetch(`${API_BASE_URL}/admin/students-details`, {
-          headers: {
-            "Content-Type": "application/json",
-            Authorization: `Bearer ${token}`,
-          },
-        });
-
-        if (studentsRes.status === 401) {
-          setError("Unauthorized access. Please login as admin.");
-          setLoading(false);
-          return;
-        }
-
-        const studentsData = await studentsRes.json();
-        if (!Array.isArray(studentsData.students)) {
-          setStudents([]);
-          setError("No student data found");
-          setLoading(false);
-          return;
-        }
-
-        setStudents(studentsData.students);
-
-        // Fetch lost and found items for counting
-        const [lostRes, foundRes] = await Promise.all([
-          axios.get(`${API_BASE_URL}/lost-items`, config),
-          axios.get(`${API_BASE_URL}/found-items`, config)
-        ]);
-
-        const lostItems = lostRes.data.items || [];
-        const foundItems = foundRes.data.items || [];
-
-        // Count items per student by email
-        const counts = {};
-        studentsData.students.forEach(student => {
-          const lostCount = lostItems.filter(item => item.userEmail === student.email).length;
-          const foundCount = foundItems.filter(item => item.userEmail === student.email).length;
-          counts[student.id] = { lost: lostCount, found: foundCount };
-        });
-
-        setStudentItemCounts(counts);
+        addStudents(await fetchUserDetailsPage("students-details", "students"));
       } catch (err) {
         console.error("Error fetching students:", err);
-        setError("Failed to load student data");
+        setError(err.status === 401
+          ? "Unauthorized access. Please login as admin."
+          : "Failed to load student data");
       } finally {
         setLoading(false);
       }
@@ -75,6 +54,17 @@ const StudentPage = () => {
     fetchStudents();
   }, []);
 
+  const loadMore = async () => {
+    try {
+      setLoadingMore(true);
+      addStudents(await fetchUserDetailsPage("students-details", "students", nextCursor));
+    } catch (err) {
+      console.error("Error fetching more students:", err);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const filteredStudents = students.filter((student) => {
     const term = searchTerm.toLowerCase();
     return (
@@ -205,6 +195,17 @@ const StudentPage = () => {
           ))
         )}
       </div>
+      {nextCursor && (
+        <div className="flex justify-center mt-6">
+          <button
+            onClick={loadMore}
+            disabled={loadingMore}
+            className="px-6 py-2 rounded-lg font-semibold bg-gray-700 text-gray-300 hover:bg-gray-600 transition disabled:opacity-50"
+          >
+            {loadingMore ? "Loading..." : "Load more"}
+          </button>
+        </div>
+      )}
       </div>
     </div>
   );
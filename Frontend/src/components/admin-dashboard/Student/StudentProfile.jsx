@@ -2,6 +2,7 @@ import React, { useEffect, useState, useRef } from "react";
 import { useParams, useNavigate, useLocation } from "react-router-dom";
 import axios from "axios";
 import { API_BASE_URL } from "../../../config";
+import { fetchUserDetails } from "../../../api/admin";
 import {
   FaEnvelope,
   FaPhoneAlt,
@@ -39,21 +40,8 @@ const StudentProfile = () => {
           } 
         };
 
-        // Fetch student details
-        const studentsRes = await fetch(`${API_BASE_URL}/admin/students-details`, {
-          headers: config.headers,
-        });
-
-        const studentsData = await studentsRes.json();
-
-        if (!Array.isArray(studentsData.students)) {
-          setError("No student data found");
-          setLoading(false);
-          return;
-        }
-
-        // Find student by id (not _id, backend returns "id")
-        const targetStudent = studentsData.students.find((s) => s.id === id);
+        // Fetch this student together with their lost and found items
+        const targetStudent = await fetchUserDetails("students-details", "students", id);
 
         if (!targetStudent) {
           setError("Student not found");
@@ -62,23 +50,8 @@ const StudentProfile = () => {
         }
 
         setStudent(targetStudent);
-
-        // Fetch all lost and found items
-        const [lostRes, foundRes] = await Promise.all([
-          axios.get(`${API_BASE_URL}/lost-items`, config),
-          axios.get(`${API_BASE_URL}/found-items`, config)
-        ]);
-
-        // Filter items for this specific student by email
-        const userLostItems = (lostRes.data.items || []).filter(
-          item => item.userEmail === targetStudent.email
-        );
-        const userFoundItems = (foundRes.data.items || []).filter(
-          item => item.userEmail === targetStudent.email
-        );
-
-        setLostItems(userLostItems);
-        setFoundItems(userFoundItems);
+        setLostItems(targetStudent.lostItems || []);
+        setFoundItems(targetStudent.foundItems || []);
 
         // Try to fetch matches, but don't fail if endpoint doesn't exist
         try {
@@ -18,68 +18,28 @@ const TopSection = () => {
 
         const config = { headers: { Authorization: `Bearer ${token}` } };
 
-        const [lostRes, foundRes, usersRes] = await Promise.all([
-          axios.get(`${API_BASE_URL}/lost-items`, config),
-          axios.get(`${API_BASE_URL}/found-items`, config),
+        // Totals and the last 7 days of counts come from the server, so this screen costs the
+        // same however many items there are
+        const [statsRes, usersRes] = await Promise.all([
+          axios.get(`${API_BASE_URL}/admin/item-stats`, { ...config, params: { days: 7 } }),
           axios.get(`${API_BASE_URL}/users/stats`, config)
         ]);
 
-        const lostItemsData = lostRes.data.items || [];
-        const foundItemsData = foundRes.data.items || [];
-
-        setLostItems(lostItemsData.length);
-        setFoundItems(foundItemsData.length);
+        setLostItems(statsRes.data.totalLost || 0);
+        setFoundItems(statsRes.data.totalFound || 0);
         setStudentCount(usersRes.data.totalStudents || 0);
         setStaffCount(usersRes.data.totalStaff || 0);
 
-        // Process data for chart - last 7 days
+        // Process data for chart - last 7 days, oldest first
         const processChartData = () => {
           const days = ['Sun', 'Mon', 'Tue', 'Wed', 'Thu', 'Fri', 'Sat'];
-          const today = new Date();
-          const last7Days = [];
-          const labels = [];
-
-          // Get last 7 days
-          for (let i = 6; i >= 0; i--) {
-            const date = new Date(today);
-            date.setDate(today.getDate() - i);
-            last7Days.push(date.toDateString());
-            labels.push(days[date.getDay()]);
-          }
-
-          // Count items per day
-          const lostCounts = new Array(7).fill(0);
-          const foundCounts = new Array(7).fill(0);
-          const returnedCounts = new Array(7).fill(0);
-          const unclaimedCounts = new Array(7).fill(0);
-
-          lostItemsData.forEach(item => {
-            const itemDate = new Date(item.dateLost || item.createdAt).toDateString();
-            const index = last7Days.indexOf(itemDate);
-            if (index !== -1) {
-              lostCounts[index]++;
-              if (item.status === 'claimed' || item.status === 'returned') {
-                returnedCounts[index]++;
-              } else if (item.status === 'unclaimed') {
-                unclaimedCounts[index]++;
-              }
-            }
-          });
-
-          foundItemsData.forEach(item => {
-            const itemDate = new Date(item.dateFound || item.createdAt).toDateString();
-            const index = last7Days.indexOf(itemDate);
-            if (index !== -1) {
-              foundCounts[index]++;
-            }
-          });
-
+          const stats = statsRes.data.days || [];
           return {
-            labels,
-            lostCounts,
-            foundCounts,
-            returnedCounts,
-            unclaimedCounts
+            labels: stats.map(day => days[new Date(`${day.date}T00:00:00`).getDay()]),
+            lostCounts: stats.map(day => day.lost),
+            foundCounts: stats.map(day => day.found),
+            returnedCounts: stats.map(day => day.returned),
+            unclaimedCounts: stats.map(day => day.unclaimed)
           };
         };
 
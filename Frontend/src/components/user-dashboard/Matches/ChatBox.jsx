@@ -4,19 +4,97 @@ import toast from "react-hot-toast";
 import { FaTimes, FaPaperPlane } from "react-icons/fa";
 import { API_BASE_URL } from "../../../config";
 
+// Reconnect delays double from 1s up to 30s; while the socket is down new messages are polled
+const RECONNECT_BASE_MS = 1000;
+const RECONNECT_MAX_MS = 30000;
+const POLL_INTERVAL_MS = 5000;
+// Close code the server uses when the user is not a participant of the match
+const POLICY_VIOLATION = 1008;
+
 const ChatBox = ({ matchId, matchedUser, onClose }) => {
   const [messages, setMessages] = useState([]);
   const [newMessage, setNewMessage] = useState("");
   const [loading, setLoading] = useState(false);
+  const [connected, setConnected] = useState(false);
   const messagesEndRef = useRef(null);
+  const socketRef = useRef(null);
+  // Newest message shown; the server only pushes stored messages, so catch-up fetches can
+  // resume after it whether it was pushed or fetched
+  const lastMessageIdRef = useRef(null);
 
   useEffect(() => {
-    fetchMessages();
-    const interval = setInterval(fetchMessages, 3000); // Poll every 3 seconds
-    return () => clearInterval(interval);
+    let closed = false;
+    let attempt = 0;
+    let reconnectTimer = null;
+    let pollTimer = null;
+
+    const startPolling = () => {
+      if (!pollTimer) pollTimer = setInterval(fetchNewMessages, POLL_INTERVAL_MS);
+    };
+    const stopPolling = () => {
+      clearInterval(pollTimer);
+      pollTimer = null;
+    };
+
+    // New messages are pushed over a WebSocket instead of polling the history
+    const connect = () => {
+      const token = localStorage.getItem("token");
+      const wsBase = API_BASE_URL.replace(/^http/, "ws").replace(/\/api\/?$/, "");
+      const socket = new WebSocket(
+        `${wsBase}/ws/chat/${matchId}?token=${encodeURIComponent(token)}`
+      );
+      socket.onopen = () => {
+        attempt = 0;
+        setConnected(true);
+        stopPolling();
+        // Pick up whatever was sent while this socket was not connected
+        fetchNewMessages();
+      };
+      socket.onmessage = (event) => {
+        const message = JSON.parse(event.data);
+        if (message.error) {
+          // The server is backed up and did not take the message; give the text back
+          toast.error(message.error);
+          setNewMessage((current) => current || message.rejectedMessage || "");
+          return;
+        }
+        addMessages([message]);
+      };
+      socket.onerror = (err) => {
+        console.error("Chat connection error:", err);
+        socket.close();
+      };
+      socket.onclose = (event) => {
+        if (socketRef.current === socket) socketRef.current = null;
+        setConnected(false);
+        if (closed || event.code === POLICY_VIOLATION) return;
+
+        startPolling();
+        const delay = Math.min(RECONNECT_BASE_MS * 2 ** attempt, RECONNECT_MAX_MS);
+        attempt += 1;
+        reconnectTimer = setTimeout(connect, delay + Math.random() * 500);
+      };
+      socketRef.current = socket;
+    };
+
+    // Load the history first so the socket's catch-up fetch can resume after it
+    lastMessageIdRef.current = null;
+    setMessages([]);
+    fetchMessages().finally(() => {
+      if (!closed) connect();
+    });
+
+    return () => {
+      closed = true;
+      clearTimeout(reconnectTimer);
+      stopPolling();
+      socketRef.current?.close();
+      socketRef.current = null;
+    };
   }, [matchId]);
 
   useEffect(() => {
+    lastMessageIdRef.current = messages.length ? messages[messages.length - 1].id : null;
     scrollToBottom();
   }, [messages]);
 
@@ -24,23 +102,78 @@ const ChatBox = ({ matchId, matchedUser, onClose }) => {
     messagesEndRef.current?.scrollIntoView({ behavior: "smooth" });
   };
 
-  const fetchMessages = async () => {
-    try {
-      const token = localStorage.getItem("token");
+  // Merge messages in, skipping ones already shown (pushed and fetched copies share ids).
+  // Catch-up fetches can land after newer pushed messages, so keep them in time order.
+  const addMessages = (incoming) => {
+    setMessages((current) => {
+      const ids = new Set(current.map((m) => m.id));
+      const fresh = incoming.filter((m) => !ids.has(m.id));
+      if (!fresh.length) return current;
+      return [...current, ...fresh].sort(
+        (a, b) => new Date(a.createdAt) - new Date(b.createdAt)
+      );
+    });
+  };
+
+  // Messages are paged oldest first; follow the cursor to the latest one
+  const fetchPages = async (params) => {
+    const token = localStorage.getItem("token");
+    const result = [];
+    let cursor = null;
+    do {
       const { data } = await axios.get(
         `${API_BASE_URL}/user/matches/${matchId}/messages`,
-        { headers: { Authorization: `Bearer ${token}` } }
+        {
+          headers: { Authorization: `Bearer ${token}` },
+          params: cursor ? { limit: 200, cursor } : { limit: 200, ...params },
+        }
       );
-      setMessages(data.messages);
+      result.push(...data.messages);
+      cursor = data.nextCursor;
+    } while (cursor);
+    return result;
+  };
+
+  const fetchMessages = async () => {
+    try {
+      const history = await fetchPages({});
+      // Keep messages pushed while the requests were in flight
+      setMessages((current) => {
+        const ids = new Set(history.map((m) => m.id));
+        return [...history, ...current.filter((m) => !ids.has(m.id))];
+      });
     } catch (err) {
       console.error("Failed to fetch messages:", err);
     }
   };
 
+  // Only what is newer than the last message shown; the full history when there is none
+  const fetchNewMessages = async () => {
+    const afterId = lastMessageIdRef.current;
+    if (!afterId) return fetchMessages();
+    try {
+      addMessages(await fetchPages({ afterId }));
+    } catch (err) {
+      if (err.response?.status === 400) {
+        // The anchor message is gone; reload the whole conversation instead
+        return fetchMessages();
+      }
+      console.error("Failed to fetch new messages:", err);
+    }
+  };
+
   const handleSendMessage = async (e) => {
     e.preventDefault();
     if (!newMessage.trim()) return;
 
+    const socket = socketRef.current;
+    if (socket && socket.readyState === WebSocket.OPEN) {
+      socket.send(JSON.stringify({ message: newMessage }));
+      setNewMessage("");
+      return;
+    }
+
+    // Fall back to the REST API while the socket is not connected
     setLoading(true);
     try {
       const token = localStorage.getItem("token");
@@ -50,7 +183,7 @@ const ChatBox = ({ matchId, matchedUser, onClose }) => {
         { headers: { Authorization: `Bearer ${token}` } }
       );
       setNewMessage("");
-      fetchMessages();
+      fetchNewMessages();
     } catch (err) {
       toast.error("Failed to send message");
     } finally {
@@ -76,6 +209,9 @@ const ChatBox = ({ matchId, matchedUser, onClose }) => {
           <div>
             <h3 className="text-lg font-semibold text-white">{matchedUser.name}</h3>
             <p className="text-sm text-gray-400">{matchedUser.email}</p>
+            {!connected && (
+              <p className="text-xs text-yellow-500">Connecting… new messages may be delayed</p>
+            )}
           </div>
           <button
             onClick={onClose}
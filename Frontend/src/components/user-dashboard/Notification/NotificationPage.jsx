@@ -2,15 +2,22 @@ import React, { useState, useEffect } from "react";
 import axios from "axios";
 import { Link } from "react-router-dom";
 import { API_BASE_URL } from "../../../config";
+import { subscribeToNotifications } from "../../../api/notifications";
 import { FaBell, FaEnvelope, FaCheckCircle, FaClock } from "react-icons/fa";
 
 function NotificationPage() {
   const [notifications, setNotifications] = useState([]);
   const [loading, setLoading] = useState(true);
   const [filter, setFilter] = useState("all"); // all, unread
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingOlder, setLoadingOlder] = useState(false);
 
   useEffect(() => {
     fetchNotifications();
+    // Show new notifications as soon as the server pushes them
+    return subscribeToNotifications((notification) =>
+      setNotifications((current) => [notification, ...current])
+    );
   }, []);
 
   const fetchNotifications = async () => {
@@ -21,6 +28,7 @@ function NotificationPage() {
         headers: { Authorization: `Bearer ${token}` },
       });
       setNotifications(response.data || []);
+      setNextCursor(response.headers["x-next-cursor"] || null);
     } catch (error) {
       console.error("Failed to fetch notifications:", error);
     } finally {
@@ -28,6 +36,27 @@ function NotificationPage() {
     }
   };
 
+  // The list is paged newest first; older pages are appended on demand
+  const loadOlder = async () => {
+    try {
+      setLoadingOlder(true);
+      const token = localStorage.getItem("token");
+      const response = await axios.get(`${API_BASE_URL}/notifications`, {
+        headers: { Authorization: `Bearer ${token}` },
+        params: { cursor: nextCursor },
+      });
+      setNotifications((current) => {
+        const ids = new Set(current.map((n) => n.id));
+        return [...current, ...(response.data || []).filter((n) => !ids.has(n.id))];
+      });
+      setNextCursor(response.headers["x-next-cursor"] || null);
+    } catch (error) {
+      console.error("Failed to fetch older notifications:", error);
+    } finally {
+      setLoadingOlder(false);
+    }
+  };
+
   const markAsRead = async (notificationId) => {
     try {
       const token = localStorage.getItem("token");
@@ -229,6 +258,18 @@ function NotificationPage() {
           ))}
         </div>
       )}
+
+      {nextCursor && (
+        <div className="flex justify-center mt-6">
+          <button
+            onClick={loadOlder}
+            disabled={loadingOlder}
+            className="px-6 py-2 rounded-lg font-semibold bg-gray-700 text-gray-300 hover:bg-gray-600 transition disabled:opacity-50"
+          >
+            {loadingOlder ? "Loading..." : "Load older notifications"}
+          </button>
+        </div>
+      )}
     </div>
   );
 }
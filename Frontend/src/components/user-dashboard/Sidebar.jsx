@@ -11,6 +11,7 @@ import {
 import { Link, useNavigate, useLocation } from "react-router-dom";
 import axios from "axios";
 import { API_BASE_URL } from "../../config";
+import { subscribeToNotifications } from "../../api/notifications";
 import logo from "/logo.png";
 import { MdDashboard } from "react-icons/md";
 import { IoNotifications } from "react-icons/io5";
@@ -23,9 +24,8 @@ const Sidebar = () => {
 
   useEffect(() => {
     fetchUnreadCount();
-    // Refresh count every 30 seconds
-    const interval = setInterval(fetchUnreadCount, 30000);
-    return () => clearInterval(interval);
+    // New notifications are pushed by the server instead of polling
+    return subscribeToNotifications(() => setUnreadCount((count) => count + 1));
   }, []);
 
   const fetchUnreadCount = async () => {
@@ -33,11 +33,10 @@ const Sidebar = () => {
       const token = localStorage.getItem("token");
       if (!token) return;
       
-      const response = await axios.get(`${API_BASE_URL}/notifications`, {
+      const response = await axios.get(`${API_BASE_URL}/notifications/unread-counts`, {
         headers: { Authorization: `Bearer ${token}` },
       });
-      const unread = response.data.filter((n) => !n.isRead).length;
-      setUnreadCount(unread);
+      setUnreadCount(response.data.notifications);
     } catch (error) {
       console.error("Failed to fetch notification count:", error);
     }